@@ -0,0 +1,55 @@
+package ru.practicum.shareitbenchmarks;
+
+import ru.practicum.shareitserver.booking.Status;
+import ru.practicum.shareitserver.booking.model.entity.Booking;
+import ru.practicum.shareitserver.item.model.entity.Comment;
+import ru.practicum.shareitserver.item.model.entity.Item;
+import ru.practicum.shareitserver.user.model.entity.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Сущности для бенчмарков мапперов и сериализации, без БД: id проставлены, связи заполнены.
+ */
+final class Fixtures {
+    static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    private Fixtures() {
+    }
+
+    static List<User> users(int count) {
+        List<User> users = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            users.add(new User(id, "User" + id, "user" + id + "@mail.ru"));
+        }
+        return users;
+    }
+
+    static List<Booking> bookings(int count) {
+        User owner = new User(0L, "Owner", "owner@mail.ru");
+        List<User> bookers = users(Math.max(1, count / 10));
+        List<Booking> bookings = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            Item item = new Item(id, "Вещь " + id, "Описание вещи " + id, true, owner, null);
+            User booker = bookers.get((int) (id % bookers.size()));
+            bookings.add(new Booking(id, NOW.plusDays(id), NOW.plusDays(id + 1), item, booker, Status.APPROVED));
+        }
+        return bookings;
+    }
+
+    static Item item(long id) {
+        return new Item(id, "Дрель " + id, "Ударная дрель " + id, true, new User(0L, "Owner", "owner@mail.ru"), null);
+    }
+
+    static List<Comment> comments(Item item, int count) {
+        List<User> authors = users(Math.max(1, count / 10));
+        List<Comment> comments = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            comments.add(new Comment(id, "Отзыв " + id + " о вещи " + item.getName(), item,
+                    authors.get((int) (id % authors.size())), NOW.minusHours(id)));
+        }
+        return comments;
+    }
+}
@@ -0,0 +1,73 @@
+package ru.practicum.shareitbenchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.practicum.shareitserver.booking.mapper.BookingMapper;
+import ru.practicum.shareitserver.booking.model.dto.BookingResponseDto;
+import ru.practicum.shareitserver.booking.model.entity.Booking;
+import ru.practicum.shareitserver.item.mapper.ItemMapper;
+import ru.practicum.shareitserver.item.model.dto.ItemFullDto;
+import ru.practicum.shareitserver.item.model.entity.Item;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сериализация ответов API в JSON тем же ObjectMapper, что настраивает Spring Boot;
+ * size — число бронирований в списке и вещей (по 10 отзывов) в списке.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonBenchmark {
+    private static final int COMMENTS_PER_ITEM = 10;
+
+    @Param({"20", "100"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private List<BookingResponseDto> bookings;
+    private List<ItemFullDto> items;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        List<Booking> bookingList = Fixtures.bookings(size);
+        bookings = BookingMapper.toBookingDtoList(bookingList);
+        items = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            Item item = Fixtures.item(i);
+            items.add(ItemMapper.toItemFullDto(item, bookingList.get(i - 1), null,
+                    Fixtures.comments(item, COMMENTS_PER_ITEM)));
+        }
+    }
+
+    @Benchmark
+    public byte[] bookingResponseDtoList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(bookings);
+    }
+
+    @Benchmark
+    public byte[] itemFullDtoList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(items);
+    }
+}
@@ -0,0 +1,68 @@
+package ru.practicum.shareitbenchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareitserver.booking.mapper.BookingMapper;
+import ru.practicum.shareitserver.booking.model.dto.BookingResponseDto;
+import ru.practicum.shareitserver.booking.model.entity.Booking;
+import ru.practicum.shareitserver.item.mapper.ItemMapper;
+import ru.practicum.shareitserver.item.model.dto.ItemFullDto;
+import ru.practicum.shareitserver.item.model.entity.Comment;
+import ru.practicum.shareitserver.item.model.entity.Item;
+import ru.practicum.shareitserver.user.mapper.UserMapper;
+import ru.practicum.shareitserver.user.model.dto.UserDto;
+import ru.practicum.shareitserver.user.model.entity.User;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Мапперы сущностей в DTO; size — число бронирований, пользователей и отзывов вещи.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+    @Param({"10", "100", "1000"})
+    private int size;
+
+    private List<Booking> bookings;
+    private List<User> users;
+    private Item item;
+    private List<Comment> comments;
+
+    @Setup
+    public void setUp() {
+        bookings = Fixtures.bookings(size);
+        users = Fixtures.users(size);
+        item = Fixtures.item(1);
+        comments = Fixtures.comments(item, size);
+    }
+
+    @Benchmark
+    public List<BookingResponseDto> toBookingDtoList() {
+        return BookingMapper.toBookingDtoList(bookings);
+    }
+
+    @Benchmark
+    public ItemFullDto toItemFullDto() {
+        return ItemMapper.toItemFullDto(item, bookings.get(0), bookings.get(bookings.size() - 1), comments);
+    }
+
+    @Benchmark
+    public List<UserDto> getUserDtoList() {
+        return UserMapper.getUserDtoList(users);
+    }
+}
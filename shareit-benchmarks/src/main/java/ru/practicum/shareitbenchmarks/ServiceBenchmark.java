@@ -0,0 +1,121 @@
+package ru.practicum.shareitbenchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareitserver.ShareItServer;
+import ru.practicum.shareitserver.booking.BookingState;
+import ru.practicum.shareitserver.booking.Status;
+import ru.practicum.shareitserver.booking.model.BookingView;
+import ru.practicum.shareitserver.booking.model.entity.Booking;
+import ru.practicum.shareitserver.booking.service.BookingService;
+import ru.practicum.shareitserver.item.model.entity.Item;
+import ru.practicum.shareitserver.item.service.ItemService;
+import ru.practicum.shareitserver.user.model.entity.User;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сервисы целиком (транзакция, запросы к H2 в памяти, маппинг сущностей) на заполненной БД:
+ * ITEMS вещей владельца, по BOOKINGS_PER_ITEM бронирований на вещь от BOOKERS пользователей.
+ * Контекст поднимается с профилем test (H2, без фоновых задач) без веб-сервера.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceBenchmark {
+    private static final int ITEMS = 500;
+    private static final int BOOKINGS_PER_ITEM = 10;
+    private static final int BOOKERS = 50;
+    private static final int PAGE = 20;
+
+    private ConfigurableApplicationContext context;
+    private BookingService bookingService;
+    private ItemService itemService;
+    private long ownerId;
+    private long bookerId;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties("logging.level.root=warn",
+                        "logging.level.ru.practicum=warn",
+                        "logging.level.org.springframework.transaction.interceptor=warn",
+                        "logging.level.org.springframework.orm.jpa.JpaTransactionManager=warn")
+                .run();
+        bookingService = context.getBean(BookingService.class);
+        itemService = context.getBean(ItemService.class);
+        seed(context.getBean(EntityManager.class), context.getBean(TransactionTemplate.class));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<BookingView> getBookingsByOwnerId() {
+        return bookingService.getBookingsByOwnerId(ownerId, BookingState.ALL, 0, PAGE);
+    }
+
+    @Benchmark
+    public List<Item> getItemsByText() {
+        return itemService.getItemsByText(bookerId, "дрель", null, null, 0, PAGE);
+    }
+
+    private void seed(EntityManager em, TransactionTemplate transactionTemplate) {
+        transactionTemplate.executeWithoutResult(status -> {
+            User owner = new User(null, "Owner", "owner@mail.ru");
+            em.persist(owner);
+            ownerId = owner.getId();
+            List<User> bookers = new ArrayList<>(BOOKERS);
+            for (int i = 0; i < BOOKERS; i++) {
+                User booker = new User(null, "Booker" + i, "booker" + i + "@mail.ru");
+                em.persist(booker);
+                bookers.add(booker);
+            }
+            bookerId = bookers.get(0).getId();
+            LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+            for (int i = 0; i < ITEMS; i++) {
+                String name = i % 10 == 0 ? "Дрель " + i : "Вещь " + i;
+                Item item = new Item(null, name, "Описание " + name, true, owner, null);
+                em.persist(item);
+                for (int j = 0; j < BOOKINGS_PER_ITEM; j++) {
+                    LocalDateTime start = now.plusDays((long) (j - BOOKINGS_PER_ITEM / 2) * 2);
+                    em.persist(new Booking(null, start, start.plusDays(1), item,
+                            bookers.get((i + j) % BOOKERS), Status.APPROVED));
+                }
+                if (i % 100 == 99) {
+                    em.flush();
+                    em.clear();
+                    owner = em.getReference(User.class, ownerId);
+                    for (int k = 0; k < BOOKERS; k++) {
+                        bookers.set(k, em.getReference(User.class, bookers.get(k).getId()));
+                    }
+                }
+            }
+        });
+    }
+}
@@ -3,12 +3,14 @@ package ru.practicum.shareitgateway.booking;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import ru.practicum.shareitgateway.booking.dto.BookingBatchRequestDto;
 import ru.practicum.shareitgateway.booking.dto.BookingRequestDto;
 import ru.practicum.shareitgateway.booking.dto.BookingState;
+import ru.practicum.shareitgateway.booking.dto.BookingStatusUpdateDto;
 import ru.practicum.shareitgateway.client.BaseClient;
 import ru.practicum.shareitgateway.common.Utility;
 
@@ -19,36 +21,49 @@ public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+            ClientHttpRequestFactory requestFactory, WebClient.Builder webClientBuilder) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                webClientBuilder
+                        .uriBuilderFactory(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
                         .build()
         );
     }
 
-    public ResponseEntity<Object> getBookings(long userId, BookingState state, Integer from, Integer size, boolean isOwner) {
+    public Object getBookings(long userId, BookingState state, Integer from, Integer size, String cursor,
+                              boolean isOwner) {
         Map<String, Object> parameters = Map.of(
                 "state", state.name(),
                 "from", from,
                 "size", size
         );
         String path = Utility.buildPath((isOwner ? "owner" : ""), "?state={state}&from={from}&size={size}");
-        return get(path, userId, parameters);
+        return get(path, userId, parameters, cursor);
     }
 
 
-    public ResponseEntity<Object> bookItem(long userId, BookingRequestDto requestDto) {
+    public Object bookItem(long userId, BookingRequestDto requestDto) {
         return post("", userId, requestDto);
     }
 
-    public ResponseEntity<Object> getBooking(long userId, long bookingId) {
+    public Object bookItems(long userId, BookingBatchRequestDto batchRequestDto) {
+        return post(Utility.buildPath("batch"), userId, batchRequestDto);
+    }
+
+    public Object getBooking(long userId, long bookingId) {
         return get(Utility.buildPath(bookingId), userId);
     }
 
-    public ResponseEntity<Object> updateBooking(long bookingId, long userId, Boolean approved) {
+    public Object updateBooking(long bookingId, long userId, Boolean approved) {
         Map<String, Object> parameters = Map.of("approved", approved);
         return patch(Utility.buildPath(bookingId, "?approved={approved}"), userId, parameters, null);
     }
+
+    public Object updateBookings(long userId, BookingStatusUpdateDto updateDto) {
+        return patch(Utility.buildPath("status"), userId, updateDto);
+    }
 }
@@ -2,11 +2,12 @@ package ru.practicum.shareitgateway.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareitgateway.booking.dto.BookingBatchRequestDto;
 import ru.practicum.shareitgateway.booking.dto.BookingRequestDto;
 import ru.practicum.shareitgateway.booking.dto.BookingState;
+import ru.practicum.shareitgateway.booking.dto.BookingStatusUpdateDto;
 import ru.practicum.shareitgateway.common.exception.BadRequestException;
 
 import javax.validation.Valid;
@@ -24,49 +25,71 @@ public class BookingController {
     private final BookingClient bookingClient;
 
     @GetMapping
-    public ResponseEntity<Object> getBookings(@RequestHeader(X_SHARER_USER_ID) long userId,
-                                              @RequestParam(name = "state", defaultValue = "all") String stateParam,
-                                              @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
-                                              @Positive @RequestParam(defaultValue = "20") Integer size) {
+    public Object getBookings(@RequestHeader(X_SHARER_USER_ID) long userId,
+                              @RequestParam(name = "state", defaultValue = "all") String stateParam,
+                              @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
+                              @Positive @RequestParam(defaultValue = "20") Integer size,
+                              @RequestParam(required = false) String cursor) {
         BookingState state = getState(stateParam);
-        log.info("Получение списка бронирований для state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
-        return bookingClient.getBookings(userId, state, from, size, false);
+        log.info("Получение списка бронирований для state {}, userId={}, from={}, size={}, cursor={}",
+                stateParam, userId, from, size, cursor);
+        return bookingClient.getBookings(userId, state, from, size, cursor, false);
     }
 
     @PostMapping
-    public ResponseEntity<Object> bookItem(@RequestHeader(X_SHARER_USER_ID) long userId,
-                                           @RequestBody @Valid BookingRequestDto requestDto) {
+    public Object bookItem(@RequestHeader(X_SHARER_USER_ID) long userId,
+                           @RequestBody @Valid BookingRequestDto requestDto) {
         log.info("Добавление нового бронирования {} пользователем userId={}", requestDto, userId);
         return bookingClient.bookItem(userId, requestDto);
     }
 
+    @PostMapping("/batch")
+    public Object bookItems(@RequestHeader(X_SHARER_USER_ID) long userId,
+                            @RequestBody @Valid BookingBatchRequestDto batchRequestDto) {
+        log.info("Пакетное добавление бронирований {} пользователем userId={}", batchRequestDto, userId);
+        for (BookingRequestDto requestDto : batchRequestDto.getBookings()) {
+            if (!requestDto.getStart().isBefore(requestDto.getEnd())) {
+                throw new BadRequestException("Начало бронирования должно быть раньше конца!");
+            }
+        }
+        return bookingClient.bookItems(userId, batchRequestDto);
+    }
+
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getBooking(@RequestHeader(X_SHARER_USER_ID) long userId,
-                                             @PathVariable long bookingId) {
+    public Object getBooking(@RequestHeader(X_SHARER_USER_ID) long userId,
+                             @PathVariable long bookingId) {
         log.info("Получение данных о бронировании c bookingId={}, userId={}", bookingId, userId);
         return bookingClient.getBooking(userId, bookingId);
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> getBookingsByOwnerId(@RequestHeader(X_SHARER_USER_ID) long userId,
-                                                       @RequestParam(name = "state", defaultValue = "ALL") String stateParam,
-                                                       @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
-                                                       @Positive @RequestParam(defaultValue = "20") Integer size) {
-        log.info("Получение списка бронирований для всех вещей пользователя c userId={} state {}, from={}, size={}",
-                userId, stateParam, from, size);
+    public Object getBookingsByOwnerId(@RequestHeader(X_SHARER_USER_ID) long userId,
+                                       @RequestParam(name = "state", defaultValue = "ALL") String stateParam,
+                                       @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
+                                       @Positive @RequestParam(defaultValue = "20") Integer size,
+                                       @RequestParam(required = false) String cursor) {
+        log.info("Получение списка бронирований для всех вещей пользователя c userId={} state {}, from={}, size={}, cursor={}",
+                userId, stateParam, from, size, cursor);
         BookingState state = getState(stateParam);
-        return bookingClient.getBookings(userId, state, from, size, true);
+        return bookingClient.getBookings(userId, state, from, size, cursor, true);
     }
 
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> updateBooking(@RequestHeader(X_SHARER_USER_ID) long userId,
-                                                @PathVariable long bookingId,
-                                                @RequestParam Boolean approved) {
+    public Object updateBooking(@RequestHeader(X_SHARER_USER_ID) long userId,
+                                @PathVariable long bookingId,
+                                @RequestParam Boolean approved) {
         log.info("Подтверждение или отклонение запроса на бронирование " +
                 "с bookingId={} пользователем с userId {}. Подтверждение? {}", bookingId, userId, approved);
         return bookingClient.updateBooking(bookingId, userId, approved);
     }
 
+    @PatchMapping("/status")
+    public Object updateBookings(@RequestHeader(X_SHARER_USER_ID) long userId,
+                                 @RequestBody @Valid BookingStatusUpdateDto updateDto) {
+        log.info("Подтверждение или отклонение запросов на бронирование {} пользователем с userId {}", updateDto, userId);
+        return bookingClient.updateBookings(userId, updateDto);
+    }
+
     private BookingState getState(String stateParam) {
         return BookingState.toState(stateParam)
                 .orElseThrow(() -> new BadRequestException("Unknown state: " + stateParam));
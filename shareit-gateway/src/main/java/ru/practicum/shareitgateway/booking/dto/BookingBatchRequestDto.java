@@ -0,0 +1,23 @@
+package ru.practicum.shareitgateway.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+/**
+ * bookings — бронирования вещей, создаваемые вместе: либо все, либо ни одного; не более 50 за запрос.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingBatchRequestDto {
+    @NotEmpty
+    @Size(max = 50)
+    private List<@NotNull @Valid BookingRequestDto> bookings;
+}
@@ -4,6 +4,8 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import javax.validation.constraints.FutureOrPresent;
+import javax.validation.constraints.NotNull;
 import java.time.LocalDateTime;
 
 /**
@@ -15,8 +17,13 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @NoArgsConstructor
 public class BookingRequestDto {
+    @NotNull
+    @FutureOrPresent
     private LocalDateTime start;
+    @NotNull
+    @FutureOrPresent
     private LocalDateTime end;
+    @NotNull
     private Long itemId;
 }
 
@@ -0,0 +1,25 @@
+package ru.practicum.shareitgateway.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+/**
+ * ids — id бронирований, не более 500 за запрос;
+ * approved — true — подтвердить, false — отклонить все бронирования из ids.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingStatusUpdateDto {
+    @NotEmpty
+    @Size(max = 500)
+    private List<@NotNull Long> ids;
+    @NotNull
+    private Boolean approved;
+}
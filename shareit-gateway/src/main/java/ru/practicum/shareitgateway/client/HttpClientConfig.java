@@ -0,0 +1,154 @@
+package ru.practicum.shareitgateway.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.httpcomponents.MicrometerHttpRequestExecutor;
+import io.micrometer.core.instrument.binder.httpcomponents.PoolingHttpClientConnectionManagerMetricsBinder;
+import io.netty.channel.ChannelOption;
+import org.apache.http.HttpClientConnection;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ConnectionRequest;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Общий для всех клиентов пул соединений с shareit-server.
+ * Метрики пула: httpcomponents.httpclient.pool.total.connections{state=leased} — запросы в работе,
+ * httpcomponents.httpclient.pool.total.pending — ожидающие соединения,
+ * httpcomponents.httpclient.pool.lease.wait — время ожидания соединения из пула,
+ * httpcomponents.httpclient.request — время запросов к серверу.
+ * В неблокирующем режиме (shareit-server.reactive=true) используется пул reactor-netty с теми же ограничениями,
+ * его метрики — reactor.netty.connection.provider.*.
+ */
+@Configuration
+public class HttpClientConfig {
+    private static final String POOL_NAME = "shareit-server";
+
+    @Bean
+    public PoolingHttpClientConnectionManager shareitServerConnectionManager(
+            @Value("${shareit-server.pool.max-total:200}") int maxTotal,
+            @Value("${shareit-server.pool.max-per-route:200}") int maxPerRoute,
+            @Value("${shareit-server.pool.time-to-live:5m}") Duration timeToLive,
+            MeterRegistry registry) {
+        Timer leaseWait = Timer.builder("httpcomponents.httpclient.pool.lease.wait")
+                .description("Время ожидания соединения из пула")
+                .tag("httpclient", POOL_NAME)
+                .register(registry);
+        PoolingHttpClientConnectionManager connectionManager =
+                new TimedPoolingHttpClientConnectionManager(timeToLive, leaseWait);
+        connectionManager.setMaxTotal(maxTotal);
+        connectionManager.setDefaultMaxPerRoute(maxPerRoute);
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, POOL_NAME).bindTo(registry);
+        return connectionManager;
+    }
+
+    @Bean
+    public CloseableHttpClient shareitServerHttpClient(
+            PoolingHttpClientConnectionManager connectionManager,
+            @Value("${shareit-server.pool.idle-timeout:30s}") Duration idleTimeout,
+            @Value("${shareit-server.pool.lease-timeout:5s}") Duration leaseTimeout,
+            @Value("${shareit-server.connect-timeout:2s}") Duration connectTimeout,
+            @Value("${shareit-server.read-timeout:30s}") Duration readTimeout,
+            MeterRegistry registry) {
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectionRequestTimeout((int) leaseTimeout.toMillis())
+                .setConnectTimeout((int) connectTimeout.toMillis())
+                .setSocketTimeout((int) readTimeout.toMillis())
+                .build();
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .evictExpiredConnections()
+                .evictIdleConnections(idleTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                .setRequestExecutor(MicrometerHttpRequestExecutor.builder(registry)
+                        .tags(Tags.of("httpclient", POOL_NAME))
+                        .build())
+                .build();
+    }
+
+    @Bean
+    public ClientHttpRequestFactory shareitServerRequestFactory(CloseableHttpClient shareitServerHttpClient) {
+        return new HttpComponentsClientHttpRequestFactory(shareitServerHttpClient);
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider shareitServerConnectionProvider(
+            @Value("${shareit-server.pool.max-total:200}") int maxTotal,
+            @Value("${shareit-server.pool.time-to-live:5m}") Duration timeToLive,
+            @Value("${shareit-server.pool.idle-timeout:30s}") Duration idleTimeout,
+            @Value("${shareit-server.pool.lease-timeout:5s}") Duration leaseTimeout) {
+        return ConnectionProvider.builder(POOL_NAME)
+                .maxConnections(maxTotal)
+                .pendingAcquireTimeout(leaseTimeout)
+                .maxIdleTime(idleTimeout)
+                .maxLifeTime(timeToLive)
+                .evictInBackground(idleTimeout)
+                .metrics(true)
+                .build();
+    }
+
+    /**
+     * Подхватывается автоконфигурацией WebClient.Builder.
+     */
+    @Bean
+    public ClientHttpConnector shareitServerClientHttpConnector(
+            ConnectionProvider shareitServerConnectionProvider,
+            @Value("${shareit-server.connect-timeout:2s}") Duration connectTimeout,
+            @Value("${shareit-server.read-timeout:30s}") Duration readTimeout) {
+        HttpClient httpClient = HttpClient.create(shareitServerConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .responseTimeout(readTimeout);
+        return new ReactorClientHttpConnector(httpClient);
+    }
+
+    /**
+     * Пул, замеряющий время ожидания свободного соединения.
+     */
+    private static class TimedPoolingHttpClientConnectionManager extends PoolingHttpClientConnectionManager {
+        private final Timer leaseWait;
+
+        TimedPoolingHttpClientConnectionManager(Duration timeToLive, Timer leaseWait) {
+            super(timeToLive.toMillis(), TimeUnit.MILLISECONDS);
+            this.leaseWait = leaseWait;
+        }
+
+        @Override
+        public ConnectionRequest requestConnection(HttpRoute route, Object state) {
+            ConnectionRequest request = super.requestConnection(route, state);
+            return new ConnectionRequest() {
+                @Override
+                public HttpClientConnection get(long timeout, TimeUnit unit)
+                        throws InterruptedException, ExecutionException, ConnectionPoolTimeoutException {
+                    long start = System.nanoTime();
+                    try {
+                        return request.get(timeout, unit);
+                    } finally {
+                        leaseWait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    }
+                }
+
+                @Override
+                public boolean cancel() {
+                    return request.cancel();
+                }
+            };
+        }
+    }
+}
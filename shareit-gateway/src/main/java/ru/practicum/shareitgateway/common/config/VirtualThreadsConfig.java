@@ -0,0 +1,41 @@
+package ru.practicum.shareitgateway.common.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Профиль virtual-threads: запросы Tomcat обрабатываются в виртуальных потоках (нужен JDK 21+).
+ * Блокирующие запросы к shareit-server выполняются в потоке запроса, поэтому тоже идут в виртуальных потоках;
+ * их число ограничивает пул соединений shareit-server.pool.*.
+ */
+@Slf4j
+@Configuration
+@Profile("virtual-threads")
+public class VirtualThreadsConfig {
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadsProtocolHandlerCustomizer() {
+        ExecutorService executor = newVirtualThreadPerTaskExecutor();
+        log.info("Обработка запросов в виртуальных потоках");
+        return protocolHandler -> protocolHandler.setExecutor(executor);
+    }
+
+    /**
+     * Executors.newVirtualThreadPerTaskExecutor() через reflection: сборка остаётся совместимой с Java 11.
+     */
+    static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Виртуальные потоки недоступны в JDK " + Runtime.version()
+                    + ", профиль virtual-threads требует JDK 21+", e);
+        }
+    }
+}
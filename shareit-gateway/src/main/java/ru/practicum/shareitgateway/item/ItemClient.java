@@ -3,15 +3,17 @@ package ru.practicum.shareitgateway.item;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareitgateway.client.BaseClient;
 import ru.practicum.shareitgateway.common.Utility;
 import ru.practicum.shareitgateway.item.dto.CommentDto;
 import ru.practicum.shareitgateway.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.Map;
 
 @Service
@@ -19,45 +21,70 @@ public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+            ClientHttpRequestFactory requestFactory, WebClient.Builder webClientBuilder) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                webClientBuilder
+                        .uriBuilderFactory(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
                         .build()
         );
     }
 
-    public ResponseEntity<Object> getItemsByUserId(long userId, Integer from, Integer size) {
+    public Object getItemsByUserId(long userId, Integer from, Integer size, String cursor) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
         );
-        return get("?from={from}&size={size}", userId, parameters);
+        return get("?from={from}&size={size}", userId, parameters, cursor);
     }
 
-    public ResponseEntity<Object> getItemById(long userId, long itemId) {
+    public Object getItemById(long userId, long itemId) {
         return get(Utility.buildPath(itemId), userId);
     }
 
-    public ResponseEntity<Object> addItem(long userId, ItemDto itemDto) {
+    public Object addItem(long userId, ItemDto itemDto) {
         return post("", userId, itemDto);
     }
 
-    public ResponseEntity<Object> updateItem(Long userId, long itemId, ItemDto itemDto) {
+    public Object updateItem(Long userId, long itemId, ItemDto itemDto) {
         return patch(Utility.buildPath(itemId), userId, itemDto);
     }
 
-    public ResponseEntity<Object> getItemsByText(Long userId, String text, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
-                "text", text,
-                "from", from,
-                "size", size
-        );
-        return get("/search?text={text}&from={from}&size={size}", userId, parameters);
+    public Object getItemsByText(long userId, String text, LocalDateTime start, LocalDateTime end,
+                                 Integer from, Integer size, String cursor) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("text", text);
+        parameters.put("from", from);
+        parameters.put("size", size);
+        String path = "/search?text={text}&from={from}&size={size}";
+        if (start != null && end != null) {
+            parameters.put("start", start);
+            parameters.put("end", end);
+            path += "&start={start}&end={end}";
+        }
+        return get(path, userId, parameters, cursor);
+    }
+
+    public Object getItemAvailability(long userId, long itemId, LocalDateTime from, LocalDateTime to) {
+        Map<String, Object> parameters = new HashMap<>();
+        StringBuilder query = new StringBuilder();
+        if (from != null) {
+            parameters.put("from", from);
+            query.append("&from={from}");
+        }
+        if (to != null) {
+            parameters.put("to", to);
+            query.append("&to={to}");
+        }
+        String path = Utility.buildPath(itemId, "/availability", query.length() > 0 ? "?" + query.substring(1) : "");
+        return get(path, userId, parameters);
     }
 
-    public ResponseEntity<Object> addComment(long userId, long itemId, CommentDto commentDto) {
+    public Object addComment(long userId, long itemId, CommentDto commentDto) {
         return post(Utility.buildPath(itemId, "/comment"), userId, commentDto);
     }
 }
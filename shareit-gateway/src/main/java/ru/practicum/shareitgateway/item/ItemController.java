@@ -2,15 +2,17 @@ package ru.practicum.shareitgateway.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.ResponseEntity;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareitgateway.common.exception.BadRequestException;
 import ru.practicum.shareitgateway.item.dto.CommentDto;
 import ru.practicum.shareitgateway.item.dto.ItemDto;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.time.LocalDateTime;
 
 import static ru.practicum.shareitgateway.common.Constants.X_SHARER_USER_ID;
 
@@ -23,48 +25,75 @@ public class ItemController {
     private final ItemClient itemClient;
 
     @GetMapping
-    public ResponseEntity<Object> getItems(@RequestHeader(X_SHARER_USER_ID) long userId,
-                                           @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
-                                           @Positive @RequestParam(defaultValue = "20") Integer size) {
-        log.info("Получение списка вещей владельца с userId={}, from={}, size={}", userId, from, size);
-        return itemClient.getItemsByUserId(userId, from, size);
+    public Object getItems(@RequestHeader(X_SHARER_USER_ID) long userId,
+                           @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
+                           @Positive @RequestParam(defaultValue = "20") Integer size,
+                           @RequestParam(required = false) String cursor) {
+        log.info("Получение списка вещей владельца с userId={}, from={}, size={}, cursor={}", userId, from, size, cursor);
+        return itemClient.getItemsByUserId(userId, from, size, cursor);
     }
 
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> getItemById(@RequestHeader(X_SHARER_USER_ID) long userId,
-                                              @PathVariable long itemId) {
+    public Object getItemById(@RequestHeader(X_SHARER_USER_ID) long userId,
+                              @PathVariable long itemId) {
         log.info("Просмотр вещи с itemId={} пользователем с userId={}", itemId, userId);
         return itemClient.getItemById(userId, itemId);
     }
 
     @PostMapping
-    public ResponseEntity<Object> addItem(@RequestHeader(X_SHARER_USER_ID) long userId,
-                                          @Valid @RequestBody ItemDto itemDto) {
+    public Object addItem(@RequestHeader(X_SHARER_USER_ID) long userId,
+                          @Valid @RequestBody ItemDto itemDto) {
         log.info("Добавление вещи {} пользователем с userId={}", itemDto, userId);
         return itemClient.addItem(userId, itemDto);
     }
 
     @PatchMapping("/{itemId}")
-    public ResponseEntity<Object> updateItem(@RequestHeader(X_SHARER_USER_ID) Long userId,
-                                             @PathVariable long itemId,
-                                             @RequestBody ItemDto itemDto) {
+    public Object updateItem(@RequestHeader(X_SHARER_USER_ID) Long userId,
+                             @PathVariable long itemId,
+                             @RequestBody ItemDto itemDto) {
         log.info("Обновление вещи {} с itemId={} пользователем с userId={}", itemDto, itemId, userId);
         return itemClient.updateItem(userId, itemId, itemDto);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> getItemsByText(@RequestHeader(X_SHARER_USER_ID) Long userId,
-                                                 @RequestParam String text,
-                                                 @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
-                                                 @Positive @RequestParam(defaultValue = "20") Integer size) {
-        log.info("Поиск вещей с текстом={} пользователем с userId={}, from={}, size={}\"", text, userId, from, size);
-        return itemClient.getItemsByText(userId, text, from, size);
+    public Object getItemsByText(@RequestHeader(X_SHARER_USER_ID) Long userId,
+                                 @RequestParam String text,
+                                 @RequestParam(required = false)
+                                 @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                 @RequestParam(required = false)
+                                 @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+                                 @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
+                                 @Positive @RequestParam(defaultValue = "20") Integer size,
+                                 @RequestParam(required = false) String cursor) {
+        log.info("Поиск вещей с текстом={}, свободных с {} по {}, пользователем с userId={}, from={}, size={}, cursor={}",
+                text, start, end, userId, from, size, cursor);
+        if ((start == null) != (end == null)) {
+            throw new BadRequestException("Период поиска задаётся началом и концом одновременно!");
+        }
+        if (start != null && !start.isBefore(end)) {
+            throw new BadRequestException("Начало периода должно быть раньше конца!");
+        }
+        return itemClient.getItemsByText(userId, text, start, end, from, size, cursor);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public Object getItemAvailability(@RequestHeader(X_SHARER_USER_ID) long userId,
+                                      @PathVariable long itemId,
+                                      @RequestParam(required = false)
+                                      @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                      @RequestParam(required = false)
+                                      @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("Получение календаря вещи с itemId={} пользователем с userId={} с {} по {}", itemId, userId, from, to);
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new BadRequestException("Начало периода должно быть раньше конца!");
+        }
+        return itemClient.getItemAvailability(userId, itemId, from, to);
     }
 
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> addComment(@RequestHeader(X_SHARER_USER_ID) long userId,
-                                             @PathVariable long itemId,
-                                             @Valid @RequestBody CommentDto commentDto) {
+    public Object addComment(@RequestHeader(X_SHARER_USER_ID) long userId,
+                             @PathVariable long itemId,
+                             @Valid @RequestBody CommentDto commentDto) {
         log.info("Добавление отзыва {} пользователем с userId={} о вещи с itemId={}", commentDto, userId, itemId);
         return itemClient.addComment(userId, itemId, commentDto);
     }
@@ -0,0 +1,29 @@
+package ru.practicum.shareitgateway.client;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * Неблокирующий режим: запрос к серверу идёт через WebClient, обработка запроса клиента асинхронная.
+ */
+@AutoConfigureMockMvc
+@SpringBootTest(properties = {"shareit-server.url=http://localhost:1", "shareit-server.reactive=true"})
+class BaseClientReactiveTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Test
+    @DisplayName("Запрос к серверу не держит поток: обработка запроса асинхронная")
+    void getIsAsynchronous() throws Exception {
+        mvc.perform(get("/users/1"))
+                .andExpect(request().asyncStarted());
+    }
+}
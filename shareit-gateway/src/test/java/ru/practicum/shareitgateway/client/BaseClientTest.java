@@ -0,0 +1,54 @@
+package ru.practicum.shareitgateway.client;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareitgateway.user.UserClient;
+
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Блокирующий режим (shareit-server.reactive=false, по умолчанию): ответ сервера возвращается
+ * в том же потоке без асинхронной обработки запроса.
+ */
+@AutoConfigureMockMvc
+@SpringBootTest(properties = "shareit-server.url=http://shareit-server")
+class BaseClientTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private UserClient userClient;
+
+    private MockRestServiceServer server;
+
+    @BeforeEach
+    void setUp() {
+        server = MockRestServiceServer.bindTo(userClient.rest).build();
+    }
+
+    @Test
+    @DisplayName("Ответ сервера передаётся клиенту синхронно, без startAsync")
+    void getIsSynchronous() throws Exception {
+        server.expect(requestTo("http://shareit-server/users/1"))
+                .andRespond(withSuccess("{\"id\":1,\"name\":\"Maria\"}", MediaType.APPLICATION_JSON));
+
+        mvc.perform(get("/users/1"))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isOk())
+                .andExpect(content().json("{\"id\":1,\"name\":\"Maria\"}"));
+        server.verify();
+    }
+}
@@ -0,0 +1,23 @@
+package ru.practicum.shareitserver.booking;
+
+import java.time.LocalDateTime;
+
+/**
+ * Фаза бронирования относительно текущего момента, хранится в bookings.phase:
+ * FUTURE — ещё не началось,
+ * CURRENT — идёт,
+ * PAST — завершилось.
+ * Переводится из фазы в фазу планировщиком BookingPhaseScheduler в моменты начала и конца.
+ */
+public enum BookingPhase {
+    FUTURE,
+    CURRENT,
+    PAST;
+
+    public static BookingPhase of(LocalDateTime start, LocalDateTime end, LocalDateTime now) {
+        if (!end.isAfter(now)) {
+            return PAST;
+        }
+        return start.isAfter(now) ? FUTURE : CURRENT;
+    }
+}
@@ -1,5 +1,7 @@
 package ru.practicum.shareitserver.booking;
 
+import java.util.Set;
+
 /**
  * WAITING — новое бронирование, ожидает одобрения,
  * APPROVED — бронирование подтверждено владельцем,
@@ -10,5 +12,10 @@ public enum Status {
     WAITING,
     APPROVED,
     REJECTED,
-    CANCELED
+    CANCELED;
+
+    /**
+     * Статусы, в которых бронирование занимает вещь на свой интервал.
+     */
+    public static final Set<Status> BLOCKING = Set.of(WAITING, APPROVED);
 }
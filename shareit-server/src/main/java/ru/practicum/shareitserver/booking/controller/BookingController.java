@@ -2,16 +2,25 @@ package ru.practicum.shareitserver.booking.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareitserver.booking.BookingState;
 import ru.practicum.shareitserver.booking.mapper.BookingMapper;
+import ru.practicum.shareitserver.booking.model.BookingStatusResult;
+import ru.practicum.shareitserver.booking.model.BookingView;
+import ru.practicum.shareitserver.booking.model.dto.BookingBatchRequestDto;
 import ru.practicum.shareitserver.booking.model.dto.BookingRequestDto;
 import ru.practicum.shareitserver.booking.model.dto.BookingResponseDto;
+import ru.practicum.shareitserver.booking.model.dto.BookingStatusResultDto;
+import ru.practicum.shareitserver.booking.model.dto.BookingStatusUpdateDto;
 import ru.practicum.shareitserver.booking.model.entity.Booking;
 import ru.practicum.shareitserver.booking.service.BookingService;
+import ru.practicum.shareitserver.common.model.Cursor;
 
 import java.util.List;
 
+import static ru.practicum.shareitserver.common.Constants.X_NEXT_CURSOR;
 import static ru.practicum.shareitserver.common.Constants.X_SHARER_USER_ID;
 
 @Slf4j
@@ -30,26 +39,38 @@ public class BookingController {
     }
 
     @GetMapping("/owner")
-    public List<BookingResponseDto> getBookingsByOwnerId(@RequestHeader(X_SHARER_USER_ID) long userId,
-                                                         @RequestParam(defaultValue = "ALL") String state,
-                                                         @RequestParam(defaultValue = "0") Integer from,
-                                                         @RequestParam(defaultValue = "20") Integer size) {
-        log.info("Получение списка бронирований для всех вещей пользователя c userId={} со статусом {}, from={}, size={}",
-                userId, state, from, size);
-        List<Booking> bookingList = bookingService.getBookingsByOwnerId(userId, BookingState.valueOf(state), from, size);
-        return BookingMapper.toBookingDtoList(bookingList);
+    public ResponseEntity<List<BookingResponseDto>> getBookingsByOwnerId(@RequestHeader(X_SHARER_USER_ID) long userId,
+                                                                         @RequestParam(defaultValue = "ALL") String state,
+                                                                         @RequestParam(defaultValue = "0") Integer from,
+                                                                         @RequestParam(defaultValue = "20") Integer size,
+                                                                         @RequestParam(required = false) String cursor) {
+        log.info("Получение списка бронирований для всех вещей пользователя c userId={} со статусом {}, from={}, size={}, cursor={}",
+                userId, state, from, size, cursor);
+        if (cursor != null) {
+            Cursor after = Cursor.decode(cursor, Cursor.Kind.START_AND_ID);
+            Slice<BookingView> slice = bookingService.getBookingsByOwnerId(userId, BookingState.valueOf(state), after, size);
+            return toResponse(slice);
+        }
+        List<BookingView> bookingList = bookingService.getBookingsByOwnerId(userId, BookingState.valueOf(state), from, size);
+        return ResponseEntity.ok(BookingMapper.toBookingViewDtoList(bookingList));
     }
 
 
     @GetMapping
-    public List<BookingResponseDto> getBookingsByBookerId(@RequestHeader(X_SHARER_USER_ID) long userId,
-                                                          @RequestParam(defaultValue = "ALL") String state,
-                                                          @RequestParam(defaultValue = "0") Integer from,
-                                                          @RequestParam(defaultValue = "20") Integer size) {
-        log.info("Получение списка всех бронирований пользователя c userId={} со статусом {}, from={}, size={}",
-                userId, state, from, size);
-        List<Booking> bookingList = bookingService.getBookingsByBookerId(userId, BookingState.valueOf(state), from, size);
-        return BookingMapper.toBookingDtoList(bookingList);
+    public ResponseEntity<List<BookingResponseDto>> getBookingsByBookerId(@RequestHeader(X_SHARER_USER_ID) long userId,
+                                                                          @RequestParam(defaultValue = "ALL") String state,
+                                                                          @RequestParam(defaultValue = "0") Integer from,
+                                                                          @RequestParam(defaultValue = "20") Integer size,
+                                                                          @RequestParam(required = false) String cursor) {
+        log.info("Получение списка всех бронирований пользователя c userId={} со статусом {}, from={}, size={}, cursor={}",
+                userId, state, from, size, cursor);
+        if (cursor != null) {
+            Cursor after = Cursor.decode(cursor, Cursor.Kind.START_AND_ID);
+            Slice<BookingView> slice = bookingService.getBookingsByBookerId(userId, BookingState.valueOf(state), after, size);
+            return toResponse(slice);
+        }
+        List<BookingView> bookingList = bookingService.getBookingsByBookerId(userId, BookingState.valueOf(state), from, size);
+        return ResponseEntity.ok(BookingMapper.toBookingViewDtoList(bookingList));
     }
 
     @PostMapping
@@ -61,6 +82,14 @@ public class BookingController {
         return BookingMapper.toBookingDtoOut(booking);
     }
 
+    @PostMapping("/batch")
+    public List<BookingResponseDto> addBookings(@RequestHeader(X_SHARER_USER_ID) long userId,
+                                                @RequestBody BookingBatchRequestDto batchRequestDto) {
+        log.info("Пакетное добавление бронирований {} пользователем userId={}", batchRequestDto, userId);
+        List<Booking> bookings = bookingService.addBookings(userId, BookingMapper.toBookingList(batchRequestDto));
+        return BookingMapper.toBookingDtoList(bookings);
+    }
+
     @PatchMapping("/{bookingId}")
     public BookingResponseDto updateBooking(@RequestHeader(X_SHARER_USER_ID) long userId,
                                             @PathVariable long bookingId,
@@ -70,4 +99,22 @@ public class BookingController {
         Booking booking = bookingService.updateBookingStatus(userId, bookingId, approved);
         return BookingMapper.toBookingDtoOut(booking);
     }
+
+    @PatchMapping("/status")
+    public List<BookingStatusResultDto> updateBookings(@RequestHeader(X_SHARER_USER_ID) long userId,
+                                                       @RequestBody BookingStatusUpdateDto updateDto) {
+        log.info("Подтверждение или отклонение запросов на бронирование {} пользователем с userId {}", updateDto, userId);
+        List<BookingStatusResult> results = bookingService.updateBookingStatuses(userId, updateDto.getIds(),
+                updateDto.getApproved());
+        return BookingMapper.toBookingStatusResultDtoList(results);
+    }
+
+    private ResponseEntity<List<BookingResponseDto>> toResponse(Slice<BookingView> slice) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        String next = Cursor.next(slice, booking -> Cursor.of(booking.getStart(), booking.getId()));
+        if (next != null) {
+            response.header(X_NEXT_CURSOR, next);
+        }
+        return response.body(BookingMapper.toBookingViewDtoList(slice.getContent()));
+    }
 }
@@ -1,11 +1,20 @@
 package ru.practicum.shareitserver.booking.mapper;
 
+import ru.practicum.shareitserver.booking.model.AvailabilitySlot;
+import ru.practicum.shareitserver.booking.model.BookingStatusResult;
+import ru.practicum.shareitserver.booking.model.BookingView;
+import ru.practicum.shareitserver.booking.model.dto.AvailabilitySlotDto;
+import ru.practicum.shareitserver.booking.model.dto.BookingBatchRequestDto;
 import ru.practicum.shareitserver.booking.model.dto.BookingDto;
 import ru.practicum.shareitserver.booking.model.dto.BookingRequestDto;
 import ru.practicum.shareitserver.booking.model.dto.BookingResponseDto;
+import ru.practicum.shareitserver.booking.model.dto.BookingStatusResultDto;
 import ru.practicum.shareitserver.booking.model.entity.Booking;
 import ru.practicum.shareitserver.item.mapper.ItemMapper;
+import ru.practicum.shareitserver.item.model.dto.ItemDto;
+import ru.practicum.shareitserver.item.model.entity.Item;
 import ru.practicum.shareitserver.user.mapper.UserMapper;
+import ru.practicum.shareitserver.user.model.dto.UserDto;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -29,6 +38,20 @@ public class BookingMapper {
                 .collect(Collectors.toList());
     }
 
+    public static BookingResponseDto toBookingDtoOut(BookingView view) {
+        return new BookingResponseDto(view.getId(), view.getStart(), view.getEnd(),
+                new ItemDto(view.getItemId(), view.getItemName(), view.getItemDescription(), view.getItemAvailable(),
+                        view.getItemRequestId()),
+                new UserDto(view.getBookerId(), view.getBookerName(), view.getBookerEmail()),
+                view.getStatus());
+    }
+
+    public static List<BookingResponseDto> toBookingViewDtoList(List<BookingView> views) {
+        return views.stream()
+                .map(BookingMapper::toBookingDtoOut)
+                .collect(Collectors.toList());
+    }
+
     public static Booking toBooking(BookingRequestDto bookingRequestDto) {
         Booking booking = new Booking();
         booking.setStart(bookingRequestDto.getStart());
@@ -36,6 +59,21 @@ public class BookingMapper {
         return booking;
     }
 
+    /**
+     * Бронирование со ссылкой на вещь, у которой заполнен только id.
+     */
+    public static List<Booking> toBookingList(BookingBatchRequestDto batchRequestDto) {
+        return batchRequestDto.getBookings().stream()
+                .map(bookingRequestDto -> {
+                    Booking booking = toBooking(bookingRequestDto);
+                    Item item = new Item();
+                    item.setId(bookingRequestDto.getItemId());
+                    booking.setItem(item);
+                    return booking;
+                })
+                .collect(Collectors.toList());
+    }
+
     public static BookingDto toBookingDto(Booking booking) {
         BookingDto bookingDto = new BookingDto();
         bookingDto.setId(booking.getId());
@@ -45,4 +83,17 @@ public class BookingMapper {
         bookingDto.setBookerId(booking.getBooker().getId());
         return bookingDto;
     }
+
+    public static List<AvailabilitySlotDto> toAvailabilitySlotDtoList(List<AvailabilitySlot> slots) {
+        return slots.stream()
+                .map(slot -> new AvailabilitySlotDto(slot.getStart(), slot.getEnd(), slot.isFree()))
+                .collect(Collectors.toList());
+    }
+
+    public static List<BookingStatusResultDto> toBookingStatusResultDtoList(List<BookingStatusResult> results) {
+        return results.stream()
+                .map(result -> new BookingStatusResultDto(result.getBookingId(), result.isUpdated(),
+                        result.getStatus(), result.getError()))
+                .collect(Collectors.toList());
+    }
 }
@@ -0,0 +1,15 @@
+package ru.practicum.shareitserver.booking.model;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * Интервал [start, end) календаря вещи: free — свободен, иначе занят бронированием.
+ */
+@Value
+public class AvailabilitySlot {
+    LocalDateTime start;
+    LocalDateTime end;
+    boolean free;
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareitserver.booking.model;
+
+import lombok.Value;
+import ru.practicum.shareitserver.booking.Status;
+
+/**
+ * Результат проставления статуса одному бронированию при массовом подтверждении или отклонении:
+ * updated — статус проставлен; status — статус бронирования после операции (null, если бронирование не найдено);
+ * error — причина, по которой статус не проставлен.
+ */
+@Value
+public class BookingStatusResult {
+    long bookingId;
+    boolean updated;
+    Status status;
+    String error;
+}
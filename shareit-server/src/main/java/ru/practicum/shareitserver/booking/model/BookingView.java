@@ -0,0 +1,26 @@
+package ru.practicum.shareitserver.booking.model;
+
+import lombok.Value;
+import ru.practicum.shareitserver.booking.Status;
+
+import java.time.LocalDateTime;
+
+/**
+ * Бронирование в списках: ровно поля BookingResponseDto, вещь и автор выбираются тем же запросом (join),
+ * поэтому страница списка — один SELECT без ленивой загрузки вещей, запросов и пользователей.
+ */
+@Value
+public class BookingView {
+    Long id;
+    LocalDateTime start;
+    LocalDateTime end;
+    Status status;
+    Long itemId;
+    String itemName;
+    String itemDescription;
+    Boolean itemAvailable;
+    Long itemRequestId;
+    Long bookerId;
+    String bookerName;
+    String bookerEmail;
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareitserver.booking.model;
+
+import lombok.Value;
+import ru.practicum.shareitserver.booking.model.entity.Booking;
+
+import java.util.Map;
+
+/**
+ * Последнее и ближайшее бронирования набора вещей, по id вещи.
+ * Вещи без бронирования в соответствующей карте отсутствуют.
+ */
+@Value
+public class ItemBookings {
+    Map<Long, Booking> lastBookings;
+    Map<Long, Booking> nextBookings;
+
+    public Booking getLastBooking(long itemId) {
+        return lastBookings.get(itemId);
+    }
+
+    public Booking getNextBooking(long itemId) {
+        return nextBookings.get(itemId);
+    }
+}
@@ -0,0 +1,21 @@
+package ru.practicum.shareitserver.booking.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * start — начало интервала;
+ * end — конец интервала (не включается);
+ * free — true, если вещь в интервале свободна, false — занята бронированием.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AvailabilitySlotDto {
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private Boolean free;
+}
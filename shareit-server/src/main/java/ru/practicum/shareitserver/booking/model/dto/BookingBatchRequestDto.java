@@ -0,0 +1,17 @@
+package ru.practicum.shareitserver.booking.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * bookings — бронирования вещей, создаваемые вместе: либо все, либо ни одного.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingBatchRequestDto {
+    private List<BookingRequestDto> bookings;
+}
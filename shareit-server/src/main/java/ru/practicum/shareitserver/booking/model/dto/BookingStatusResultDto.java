@@ -0,0 +1,22 @@
+package ru.practicum.shareitserver.booking.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareitserver.booking.Status;
+
+/**
+ * id — id бронирования;
+ * updated — true, если статус проставлен;
+ * status — статус бронирования после операции;
+ * error — причина, по которой статус не проставлен.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingStatusResultDto {
+    private Long id;
+    private Boolean updated;
+    private Status status;
+    private String error;
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareitserver.booking.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * ids — id бронирований;
+ * approved — true — подтвердить, false — отклонить все бронирования из ids.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingStatusUpdateDto {
+    private List<Long> ids;
+    private Boolean approved;
+}
@@ -1,10 +1,10 @@
 package ru.practicum.shareitserver.booking.model.entity;
 
-import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
+import ru.practicum.shareitserver.booking.BookingPhase;
 import ru.practicum.shareitserver.booking.Status;
 import ru.practicum.shareitserver.item.model.entity.Item;
 import ru.practicum.shareitserver.user.model.entity.User;
@@ -24,9 +24,10 @@ import java.time.LocalDateTime;
  * APPROVED — бронирование подтверждено владельцем,
  * REJECTED — бронирование отклонено владельцем,
  * CANCELED — бронирование отменено создателем.
+ * phase — фаза бронирования (FUTURE, CURRENT, PAST): вычисляется при вставке, дальше меняется
+ * только планировщиком BookingPhaseScheduler, поэтому при обновлении сущности не записывается.
  */
 @Data
-@AllArgsConstructor
 @NoArgsConstructor
 @Entity
 @Table(name = "bookings")
@@ -54,4 +55,24 @@ public class Booking {
     @Column
     @Enumerated(EnumType.STRING)
     private Status status;
+
+    @Column(updatable = false)
+    @Enumerated(EnumType.STRING)
+    private BookingPhase phase;
+
+    public Booking(Long id, LocalDateTime start, LocalDateTime end, Item item, User booker, Status status) {
+        this.id = id;
+        this.start = start;
+        this.end = end;
+        this.item = item;
+        this.booker = booker;
+        this.status = status;
+    }
+
+    @PrePersist
+    private void initPhase() {
+        if (phase == null) {
+            phase = BookingPhase.of(start, end, LocalDateTime.now());
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,52 @@
+package ru.practicum.shareitserver.booking.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareitserver.booking.model.entity.Booking;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+
+/**
+ * Пакетная вставка бронирований. Hibernate не группирует INSERT сущностей с IDENTITY-ключом,
+ * поэтому вставка идёт через JDBC в соединении текущей транзакции, а id читаются из сгенерированных ключей.
+ */
+@Repository
+@RequiredArgsConstructor
+public class BookingBatchRepository {
+    private static final String INSERT = "insert into bookings (start_date, end_date, item_id, booker_id, status, phase) " +
+            "values (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Вставка бронирований одним пакетом; бронированиям проставляются сгенерированные id.
+     */
+    public List<Booking> insertAll(List<Booking> bookings) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(INSERT, new String[]{"id"})) {
+                for (Booking booking : bookings) {
+                    ps.setObject(1, booking.getStart());
+                    ps.setObject(2, booking.getEnd());
+                    ps.setLong(3, booking.getItem().getId());
+                    ps.setLong(4, booking.getBooker().getId());
+                    ps.setString(5, booking.getStatus().name());
+                    ps.setString(6, booking.getPhase().name());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    for (Booking booking : bookings) {
+                        keys.next();
+                        booking.setId(keys.getLong(1));
+                    }
+                }
+            }
+            return null;
+        });
+        return bookings;
+    }
+}
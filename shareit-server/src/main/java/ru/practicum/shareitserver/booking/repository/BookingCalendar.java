@@ -0,0 +1,135 @@
+package ru.practicum.shareitserver.booking.repository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareitserver.booking.Status;
+import ru.practicum.shareitserver.booking.model.AvailabilitySlot;
+import ru.practicum.shareitserver.booking.model.entity.Booking;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Календарь занятости вещей в памяти по {@link BookingIntervalIndex}: ожидающие и подтверждённые бронирования.
+ * Строится заново потоковым чтением бронирований при старте приложения и подменяет прежний,
+ * а при сохранении бронирования обновляется после фиксации транзакции.
+ * Обновления, пришедшие во время перестроения, применяются к обоим индексам: к текущему сразу,
+ * к новому — перед подменой, поэтому ни одно из них не теряется.
+ * Пока календарь не построен впервые, занятость вещи читается из БД.
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class BookingCalendar {
+    private final Object updateLock = new Object();
+    private final BookingRepository bookingRepository;
+    private final EntityManager em;
+    /**
+     * null, пока календарь не построен впервые.
+     */
+    private volatile BookingIntervalIndex index;
+    /**
+     * Обновления, пришедшие во время перестроения, для повтора на новом индексе; null вне перестроения.
+     */
+    private List<Consumer<BookingIntervalIndex>> pendingUpdates;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        log.info("Построение календаря бронирований");
+        synchronized (updateLock) {
+            pendingUpdates = new ArrayList<>();
+        }
+        BookingIntervalIndex built;
+        try (Stream<Booking> bookings = bookingRepository.streamAllByStatusIn(Status.BLOCKING)) {
+            BookingIntervalIndex.Builder builder = BookingIntervalIndex.builder();
+            bookings.forEach(booking -> {
+                builder.put(booking.getItem().getId(), booking.getId(), booking.getStart(), booking.getEnd());
+                em.detach(booking);
+            });
+            built = builder.build();
+        } catch (RuntimeException e) {
+            synchronized (updateLock) {
+                pendingUpdates = null;
+            }
+            throw e;
+        }
+        synchronized (updateLock) {
+            pendingUpdates.forEach(update -> update.accept(built));
+            log.info("Календарь бронирований построен, бронирований: {}, обновлений во время построения: {}",
+                    built.size(), pendingUpdates.size());
+            pendingUpdates = null;
+            index = built;
+        }
+    }
+
+    public List<AvailabilitySlot> getSlots(long itemId, LocalDateTime from, LocalDateTime to) {
+        BookingIntervalIndex current = index;
+        if (current == null) {
+            log.debug("Календарь бронирований ещё не построен, занятость вещи с itemId={} читается из БД", itemId);
+            return slotsFromDatabase(itemId, from, to);
+        }
+        return current.slots(itemId, from, to);
+    }
+
+    /**
+     * Календарь одной вещи по её бронированиям, пересекающимся с [from, to).
+     */
+    private List<AvailabilitySlot> slotsFromDatabase(long itemId, LocalDateTime from, LocalDateTime to) {
+        BookingIntervalIndex.Builder builder = BookingIntervalIndex.builder();
+        bookingRepository.findOverlapping(List.of(itemId), from, to, Status.BLOCKING)
+                .forEach(booking -> builder.put(itemId, booking.getId(), booking.getStart(), booking.getEnd()));
+        return builder.build().slots(itemId, from, to);
+    }
+
+    public void onBookingSaved(Booking booking) {
+        long itemId = booking.getItem().getId();
+        long bookingId = booking.getId();
+        LocalDateTime start = booking.getStart();
+        LocalDateTime end = booking.getEnd();
+        boolean blocking = Status.BLOCKING.contains(booking.getStatus());
+        Consumer<BookingIntervalIndex> update = target -> {
+            if (blocking) {
+                target.put(itemId, bookingId, start, end);
+            } else {
+                target.remove(itemId, bookingId);
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(update);
+                }
+            });
+        } else {
+            apply(update);
+        }
+    }
+
+    /**
+     * Обновление текущего индекса и, если идёт перестроение, запоминание обновления для нового.
+     * До первого построения текущего индекса нет: бронирование попадёт в него при чтении из БД или повтором.
+     */
+    private void apply(Consumer<BookingIntervalIndex> update) {
+        synchronized (updateLock) {
+            BookingIntervalIndex current = index;
+            if (current != null) {
+                update.accept(current);
+            }
+            if (pendingUpdates != null) {
+                pendingUpdates.add(update);
+            }
+        }
+    }
+}
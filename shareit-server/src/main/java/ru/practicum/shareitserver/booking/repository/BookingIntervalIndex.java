@@ -0,0 +1,230 @@
+package ru.practicum.shareitserver.booking.repository;
+
+import ru.practicum.shareitserver.booking.model.AvailabilitySlot;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Интервалы бронирований по вещам: для каждой вещи — массивы начал, концов и id бронирований,
+ * отсортированные по началу, и префиксный максимум концов для бинарного поиска первого пересечения.
+ * Массивы вещи неизменяемы и заменяются целиком, поэтому чтение идёт без блокировок.
+ * Одиночные изменения копируют массивы вещи (copy-on-write), полное построение идёт через {@link Builder}:
+ * интервалы группируются по вещам и сортируются один раз на вещь.
+ * Время хранится в микросекундах от эпохи (как точность TIMESTAMP в БД).
+ */
+public class BookingIntervalIndex {
+    private final Map<Long, Intervals> items;
+
+    public BookingIntervalIndex() {
+        this(new ConcurrentHashMap<>());
+    }
+
+    private BookingIntervalIndex(Map<Long, Intervals> items) {
+        this.items = items;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Добавление или замена интервала бронирования.
+     */
+    public void put(long itemId, long bookingId, LocalDateTime start, LocalDateTime end) {
+        items.compute(itemId, (id, intervals) -> (intervals == null ? Intervals.EMPTY : intervals)
+                .with(bookingId, toMicros(start), toMicros(end)));
+    }
+
+    public void remove(long itemId, long bookingId) {
+        items.computeIfPresent(itemId, (id, intervals) -> intervals.without(bookingId));
+    }
+
+    public int size() {
+        return items.values().stream()
+                .mapToInt(intervals -> intervals.ids.length)
+                .sum();
+    }
+
+    /**
+     * Свободные и занятые интервалы вещи внутри [from, to) по порядку; пересекающиеся бронирования сливаются.
+     */
+    public List<AvailabilitySlot> slots(long itemId, LocalDateTime from, LocalDateTime to) {
+        long fromMicros = toMicros(from);
+        long toMicros = toMicros(to);
+        List<AvailabilitySlot> slots = new ArrayList<>();
+        long cursor = fromMicros;
+        for (long[] busy : items.getOrDefault(itemId, Intervals.EMPTY).busy(fromMicros, toMicros)) {
+            if (busy[0] > cursor) {
+                slots.add(new AvailabilitySlot(toTime(cursor), toTime(busy[0]), true));
+            }
+            slots.add(new AvailabilitySlot(toTime(busy[0]), toTime(busy[1]), false));
+            cursor = busy[1];
+        }
+        if (cursor < toMicros) {
+            slots.add(new AvailabilitySlot(toTime(cursor), to, true));
+        }
+        return slots;
+    }
+
+    private static long toMicros(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + time.getNano() / 1_000;
+    }
+
+    private static LocalDateTime toTime(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+                (int) Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC);
+    }
+
+    /**
+     * Построение индекса целиком: каждое бронирование добавляется один раз,
+     * интервалы вещи копятся в буфере и в {@link #build()} сортируются по началу.
+     */
+    public static class Builder {
+        private final Map<Long, IntervalBuffer> items = new HashMap<>();
+
+        private Builder() {
+        }
+
+        public Builder put(long itemId, long bookingId, LocalDateTime start, LocalDateTime end) {
+            items.computeIfAbsent(itemId, id -> new IntervalBuffer()).add(bookingId, toMicros(start), toMicros(end));
+            return this;
+        }
+
+        public BookingIntervalIndex build() {
+            Map<Long, Intervals> built = new ConcurrentHashMap<>(items.size() * 4 / 3 + 1);
+            items.forEach((itemId, buffer) -> built.put(itemId, buffer.toIntervals()));
+            return new BookingIntervalIndex(built);
+        }
+    }
+
+    private static final class IntervalBuffer {
+        private long[] ids = new long[4];
+        private long[] starts = new long[4];
+        private long[] ends = new long[4];
+        private int size;
+
+        private void add(long id, long start, long end) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                starts = Arrays.copyOf(starts, size * 2);
+                ends = Arrays.copyOf(ends, size * 2);
+            }
+            ids[size] = id;
+            starts[size] = start;
+            ends[size] = end;
+            size++;
+        }
+
+        private Intervals toIntervals() {
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, Comparator.comparingLong(i -> starts[i]));
+            long[] sortedIds = new long[size];
+            long[] sortedStarts = new long[size];
+            long[] sortedEnds = new long[size];
+            for (int i = 0; i < size; i++) {
+                sortedIds[i] = ids[order[i]];
+                sortedStarts[i] = starts[order[i]];
+                sortedEnds[i] = ends[order[i]];
+            }
+            return new Intervals(sortedIds, sortedStarts, sortedEnds);
+        }
+    }
+
+    private static final class Intervals {
+        private static final Intervals EMPTY = new Intervals(new long[0], new long[0], new long[0]);
+
+        private final long[] ids;
+        private final long[] starts;
+        private final long[] ends;
+        private final long[] maxEnds;
+
+        private Intervals(long[] ids, long[] starts, long[] ends) {
+            this.ids = ids;
+            this.starts = starts;
+            this.ends = ends;
+            this.maxEnds = new long[ends.length];
+            for (int i = 0; i < ends.length; i++) {
+                maxEnds[i] = i == 0 ? ends[i] : Math.max(maxEnds[i - 1], ends[i]);
+            }
+        }
+
+        private Intervals with(long id, long start, long end) {
+            Intervals rest = without(id);
+            int at = lowerBound(rest.starts, start + 1);
+            return new Intervals(insert(rest.ids, at, id), insert(rest.starts, at, start), insert(rest.ends, at, end));
+        }
+
+        private Intervals without(long id) {
+            for (int i = 0; i < ids.length; i++) {
+                if (ids[i] == id) {
+                    return new Intervals(delete(ids, i), delete(starts, i), delete(ends, i));
+                }
+            }
+            return this;
+        }
+
+        /**
+         * Занятые интервалы, пересекающиеся с [from, to), обрезанные по его границам и слитые.
+         */
+        private List<long[]> busy(long from, long to) {
+            List<long[]> busy = new ArrayList<>();
+            int hi = lowerBound(starts, to);
+            for (int i = lowerBound(maxEnds, from + 1); i < hi; i++) {
+                if (ends[i] <= from) {
+                    continue;
+                }
+                long start = Math.max(starts[i], from);
+                long end = Math.min(ends[i], to);
+                long[] last = busy.isEmpty() ? null : busy.get(busy.size() - 1);
+                if (last != null && start <= last[1]) {
+                    last[1] = Math.max(last[1], end);
+                } else if (start < end) {
+                    busy.add(new long[]{start, end});
+                }
+            }
+            return busy;
+        }
+
+        /**
+         * Первый индекс i, для которого values[i] >= value (values не убывает).
+         */
+        private static int lowerBound(long[] values, long value) {
+            int lo = 0;
+            int hi = values.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (values[mid] < value) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+
+        private static long[] insert(long[] values, int at, long value) {
+            long[] result = new long[values.length + 1];
+            System.arraycopy(values, 0, result, 0, at);
+            result[at] = value;
+            System.arraycopy(values, at, result, at + 1, values.length - at);
+            return result;
+        }
+
+        private static long[] delete(long[] values, int at) {
+            long[] result = Arrays.copyOf(values, values.length - 1);
+            System.arraycopy(values, at + 1, result, at, values.length - at - 1);
+            return result;
+        }
+    }
+}
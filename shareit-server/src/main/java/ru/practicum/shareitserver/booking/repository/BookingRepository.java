@@ -1,47 +1,215 @@
 package ru.practicum.shareitserver.booking.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareitserver.booking.BookingPhase;
 import ru.practicum.shareitserver.booking.Status;
+import ru.practicum.shareitserver.booking.model.BookingView;
 import ru.practicum.shareitserver.booking.model.entity.Booking;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
-
-    Page<Booking> findAllByBookerIdOrderByStartDesc(long bookerId, Pageable pageable);
-
-    Page<Booking> findAllByBookerIdAndStatusOrderByStartDesc(long bookerId, Status status, Pageable pageable);
-
-    Page<Booking> findAllByBookerIdAndEndBeforeOrderByStartDesc(long bookerId, LocalDateTime endDate, Pageable pageable);
-
-    Page<Booking> findAllByBookerIdAndStartAfterOrderByStartDesc(long bookerId, LocalDateTime startDate, Pageable pageable);
-
-    Page<Booking> findAllByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(long bookerId,
-                                                                             LocalDateTime startDate,
-                                                                             LocalDateTime endDate,
-                                                                             Pageable pageable);
-
-    Page<Booking> findAllByItemIdOrderByStartDesc(long itemId, Pageable pageable);
-
-    Page<Booking> findAllByItemIdAndStatusOrderByStartDesc(long itemId, Status status, Pageable pageable);
-
-    Page<Booking> findAllByItemIdAndEndBeforeOrderByStartDesc(long itemId, LocalDateTime endDate, Pageable pageable);
-
-    Page<Booking> findAllByItemIdAndStartAfterOrderByStartDesc(long itemId, LocalDateTime startDate, Pageable pageable);
-
-    Page<Booking> findAllByItemIdAndStartBeforeAndEndAfterOrderByStartDesc(long itemId,
-                                                                           LocalDateTime startDate,
-                                                                           LocalDateTime endDate,
-                                                                           Pageable pageable);
+    /**
+     * Условие постраничной выдачи по ключу (start, id): строго после последнего элемента предыдущей страницы.
+     */
+    String SEEK = "and (b.start < :cursorStart or (b.start = :cursorStart and b.id < :cursorId)) " +
+            "order by b.start desc, b.id desc";
+
+    /**
+     * Списки бронирований: поля BookingView одним запросом с вещью и автором;
+     * id запроса вещи берётся из внешнего ключа без join.
+     */
+    String VIEW = "select new ru.practicum.shareitserver.booking.model.BookingView(b.id, b.start, b.end, b.status, " +
+            "i.id, i.name, i.description, i.available, i.request.id, u.id, u.name, u.email) " +
+            "from Booking b join b.item i join b.booker u ";
+
+    String ORDER = "order by b.start desc";
+
+    @Query(VIEW + "where b.booker.id = :userId " + ORDER)
+    Slice<BookingView> findAllByBookerIdOrderByStartDesc(@Param("userId") long bookerId, Pageable pageable);
+
+    @Query(VIEW + "where b.booker.id = :userId and b.status = :status " + ORDER)
+    Slice<BookingView> findAllByBookerIdAndStatusOrderByStartDesc(@Param("userId") long bookerId,
+                                                                  @Param("status") Status status,
+                                                                  Pageable pageable);
+
+    @Query(VIEW + "where b.booker.id = :userId and b.phase = :phase " + ORDER)
+    Slice<BookingView> findAllByBookerIdAndPhaseOrderByStartDesc(@Param("userId") long bookerId,
+                                                                 @Param("phase") BookingPhase phase,
+                                                                 Pageable pageable);
+
+    @Query(VIEW + "where i.owner.id = :userId " + ORDER)
+    Slice<BookingView> findAllByItemOwnerIdOrderByStartDesc(@Param("userId") long ownerId, Pageable pageable);
+
+    @Query(VIEW + "where i.owner.id = :userId and b.status = :status " + ORDER)
+    Slice<BookingView> findAllByItemOwnerIdAndStatusOrderByStartDesc(@Param("userId") long ownerId,
+                                                                     @Param("status") Status status,
+                                                                     Pageable pageable);
+
+    @Query(VIEW + "where i.owner.id = :userId and b.phase = :phase " + ORDER)
+    Slice<BookingView> findAllByItemOwnerIdAndPhaseOrderByStartDesc(@Param("userId") long ownerId,
+                                                                    @Param("phase") BookingPhase phase,
+                                                                    Pageable pageable);
+
+    @Query(VIEW + "where b.booker.id = :userId " + SEEK)
+    Slice<BookingView> seekByBookerId(@Param("userId") long bookerId,
+                                      @Param("cursorStart") LocalDateTime cursorStart,
+                                      @Param("cursorId") long cursorId,
+                                      Pageable pageable);
+
+    @Query(VIEW + "where b.booker.id = :userId and b.status = :status " + SEEK)
+    Slice<BookingView> seekByBookerIdAndStatus(@Param("userId") long bookerId,
+                                               @Param("status") Status status,
+                                               @Param("cursorStart") LocalDateTime cursorStart,
+                                               @Param("cursorId") long cursorId,
+                                               Pageable pageable);
+
+    @Query(VIEW + "where b.booker.id = :userId and b.phase = :phase " + SEEK)
+    Slice<BookingView> seekByBookerIdAndPhase(@Param("userId") long bookerId,
+                                              @Param("phase") BookingPhase phase,
+                                              @Param("cursorStart") LocalDateTime cursorStart,
+                                              @Param("cursorId") long cursorId,
+                                              Pageable pageable);
+
+    @Query(VIEW + "where i.owner.id = :userId " + SEEK)
+    Slice<BookingView> seekByOwnerId(@Param("userId") long ownerId,
+                                     @Param("cursorStart") LocalDateTime cursorStart,
+                                     @Param("cursorId") long cursorId,
+                                     Pageable pageable);
+
+    @Query(VIEW + "where i.owner.id = :userId and b.status = :status " + SEEK)
+    Slice<BookingView> seekByOwnerIdAndStatus(@Param("userId") long ownerId,
+                                              @Param("status") Status status,
+                                              @Param("cursorStart") LocalDateTime cursorStart,
+                                              @Param("cursorId") long cursorId,
+                                              Pageable pageable);
+
+    @Query(VIEW + "where i.owner.id = :userId and b.phase = :phase " + SEEK)
+    Slice<BookingView> seekByOwnerIdAndPhase(@Param("userId") long ownerId,
+                                             @Param("phase") BookingPhase phase,
+                                             @Param("cursorStart") LocalDateTime cursorStart,
+                                             @Param("cursorId") long cursorId,
+                                             Pageable pageable);
 
     Booking findFirstByItemIdAndEndBeforeOrderByEndDesc(long itemId, LocalDateTime endDate);
 
     Booking findFirstByItemIdAndStartAfterOrderByStartAsc(long itemId, LocalDateTime startDate);
 
+    /**
+     * Для каждой вещи из itemIds — последнее завершившееся (end_date < now) и ближайшее будущее (start_date > now)
+     * бронирование одним запросом.
+     */
+    @Query(value = "select id, start_date, end_date, item_id, booker_id, status, phase from (" +
+            "select b.*, row_number() over (partition by b.item_id order by b.end_date desc) as rn " +
+            "from bookings b where b.item_id in (:itemIds) and b.end_date < :now) as last_bookings where rn = 1 " +
+            "union all " +
+            "select id, start_date, end_date, item_id, booker_id, status, phase from (" +
+            "select b.*, row_number() over (partition by b.item_id order by b.start_date) as rn " +
+            "from bookings b where b.item_id in (:itemIds) and b.start_date > :now) as next_bookings where rn = 1",
+            nativeQuery = true)
+    List<Booking> findLastAndNextByItemIdIn(@Param("itemIds") Collection<Long> itemIds,
+                                            @Param("now") LocalDateTime now);
+
+    /**
+     * Есть ли у вещи бронирование в одном из статусов statuses, пересекающееся с интервалом [start, end).
+     */
+    @Query("select count(b) > 0 from Booking b " +
+            "where b.item.id = :itemId and b.status in :statuses and b.start < :end and b.end > :start")
+    boolean existsOverlapping(@Param("itemId") long itemId,
+                              @Param("start") LocalDateTime start,
+                              @Param("end") LocalDateTime end,
+                              @Param("statuses") Collection<Status> statuses);
+
+    /**
+     * Бронирования вещей itemIds в статусах statuses, пересекающиеся с [start, end).
+     */
+    @Query("select b from Booking b " +
+            "where b.item.id in :itemIds and b.status in :statuses and b.start < :end and b.end > :start")
+    List<Booking> findOverlapping(@Param("itemIds") Collection<Long> itemIds,
+                                  @Param("start") LocalDateTime start,
+                                  @Param("end") LocalDateTime end,
+                                  @Param("statuses") Collection<Status> statuses);
+
+    /**
+     * Бронирования из ids по вещам владельца ownerId с блокировкой строк; чужие и несуществующие id не возвращаются.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from Booking b where b.id in :ids and b.item.owner.id = :ownerId")
+    List<Booking> findAllByIdInAndOwnerIdForUpdate(@Param("ids") Collection<Long> ids,
+                                                   @Param("ownerId") long ownerId);
+
+    /**
+     * Первые по id бронирования в статусе status, начавшиеся не позже startedBefore, с блокировкой строк.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from Booking b where b.status = :status and b.start <= :startedBefore order by b.id")
+    List<Booking> findAllByStatusAndStartedBeforeForUpdate(@Param("status") Status status,
+                                                           @Param("startedBefore") LocalDateTime startedBefore,
+                                                           Pageable pageable);
+
+    long countByStatusAndStartLessThanEqual(Status status, LocalDateTime startedBefore);
+
+    /**
+     * Проставление статуса бронированиям из ids одним UPDATE.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Booking b set b.status = :status where b.id in :ids")
+    int updateStatus(@Param("ids") Collection<Long> ids, @Param("status") Status status);
+
     List<Booking> findByBookerIdAndItemIdAndEndBefore(long bookerId,
                                                       long itemId,
                                                       LocalDateTime endDate);
+
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<Booking> streamAllByStatusIn(Collection<Status> statuses);
+
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<Booking> streamAllByPhaseIn(Collection<BookingPhase> phases);
+
+    /**
+     * Перевод бронирований из ids в фазу phase одним UPDATE.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Booking b set b.phase = :phase where b.id in :ids")
+    int updatePhase(@Param("ids") Collection<Long> ids, @Param("phase") BookingPhase phase);
+
+    /**
+     * Догоняющий перевод фаз на момент now, например после простоя сервера.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Booking b set b.phase = ru.practicum.shareitserver.booking.BookingPhase.PAST " +
+            "where b.phase <> ru.practicum.shareitserver.booking.BookingPhase.PAST and b.end <= :now")
+    int updatePastPhase(@Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Booking b set b.phase = ru.practicum.shareitserver.booking.BookingPhase.CURRENT " +
+            "where b.phase = ru.practicum.shareitserver.booking.BookingPhase.FUTURE and b.start <= :now and b.end > :now")
+    int updateCurrentPhase(@Param("now") LocalDateTime now);
+
+    /**
+     * Число бронирований по автору и фазе.
+     */
+    @Query("select b.booker.id as bookerId, b.phase as phase, count(b) as count from Booking b " +
+            "group by b.booker.id, b.phase")
+    List<PhaseCount> countByBookerIdAndPhase();
+
+    interface PhaseCount {
+        Long getBookerId();
+
+        BookingPhase getPhase();
+
+        long getCount();
+    }
 }
@@ -0,0 +1,133 @@
+package ru.practicum.shareitserver.booking.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareitserver.booking.Status;
+import ru.practicum.shareitserver.booking.model.entity.Booking;
+import ru.practicum.shareitserver.booking.repository.BookingCalendar;
+import ru.practicum.shareitserver.booking.repository.BookingRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Отклонение бронирований, оставшихся в статусе WAITING после начала (плюс grace): владелец не ответил вовремя.
+ * Бронирования обрабатываются пачками по chunk-size, каждая пачка — отдельная короткая транзакция
+ * с блокировкой только своих строк, между пачками — пауза chunk-pause.
+ * Число ещё не отклонённых бронирований публикуется в метрике booking.expiry.backlog,
+ * число отклонённых — в booking.expiry.expired.
+ */
+@Slf4j
+@Service
+public class BookingExpiryJob implements MeterBinder {
+    private final BookingRepository bookingRepository;
+    private final BookingCalendar bookingCalendar;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration grace;
+    private final int chunkSize;
+    private final Duration chunkPause;
+    private final AtomicLong backlog = new AtomicLong();
+    private final AtomicLong expired = new AtomicLong();
+
+    public BookingExpiryJob(BookingRepository bookingRepository,
+                            BookingCalendar bookingCalendar,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${shareit.booking-expiry.grace:10m}") Duration grace,
+                            @Value("${shareit.booking-expiry.chunk-size:500}") int chunkSize,
+                            @Value("${shareit.booking-expiry.chunk-pause:100ms}") Duration chunkPause) {
+        this.bookingRepository = bookingRepository;
+        this.bookingCalendar = bookingCalendar;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.grace = grace;
+        this.chunkSize = chunkSize;
+        this.chunkPause = chunkPause;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking-expiry.interval-ms:60000}")
+    public void run() {
+        expire(LocalDateTime.now());
+    }
+
+    /**
+     * Отклонение бронирований в статусе WAITING, начавшихся не позже now - grace; возвращает их число.
+     */
+    public int expire(LocalDateTime now) {
+        LocalDateTime startedBefore = now.minus(grace);
+        backlog.set(bookingRepository.countByStatusAndStartLessThanEqual(Status.WAITING, startedBefore));
+        int total = 0;
+        while (true) {
+            Integer count = transactionTemplate.execute(status -> expireChunk(startedBefore));
+            int chunk = count == null ? 0 : count;
+            total += chunk;
+            expired.addAndGet(chunk);
+            backlog.updateAndGet(value -> Math.max(0, value - chunk));
+            if (chunk < chunkSize || !pause()) {
+                break;
+            }
+        }
+        if (total > 0) {
+            log.info("Отклонено {} бронирований, не подтверждённых до начала", total);
+        }
+        return total;
+    }
+
+    long backlog() {
+        return backlog.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("booking.expiry.backlog", backlog, AtomicLong::get)
+                .description("Бронирования в статусе WAITING, начало которых прошло")
+                .register(registry);
+        FunctionCounter.builder("booking.expiry.expired", expired, AtomicLong::get)
+                .description("Бронирования, отклонённые без ответа владельца")
+                .register(registry);
+    }
+
+    private int expireChunk(LocalDateTime startedBefore) {
+        List<Booking> bookings = bookingRepository.findAllByStatusAndStartedBeforeForUpdate(
+                Status.WAITING, startedBefore, PageRequest.of(0, chunkSize));
+        if (bookings.isEmpty()) {
+            return 0;
+        }
+        List<Long> ids = bookings.stream()
+                .map(Booking::getId)
+                .collect(Collectors.toList());
+        for (Booking booking : bookings) {
+            bookingCalendar.onBookingSaved(new Booking(booking.getId(), booking.getStart(), booking.getEnd(),
+                    booking.getItem(), booking.getBooker(), Status.REJECTED));
+        }
+        bookingRepository.updateStatus(ids, Status.REJECTED);
+        log.debug("Отклонены бронирования {}", ids);
+        return ids.size();
+    }
+
+    /**
+     * Пауза между пачками; false — поток прерван, обработку нужно остановить.
+     */
+    private boolean pause() {
+        if (chunkPause.isZero()) {
+            return true;
+        }
+        try {
+            Thread.sleep(chunkPause.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package ru.practicum.shareitserver.booking.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareitserver.booking.BookingPhase;
+import ru.practicum.shareitserver.booking.model.entity.Booking;
+import ru.practicum.shareitserver.booking.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+
+/**
+ * Перевод бронирований по фазам FUTURE → CURRENT → PAST в моменты начала и конца.
+ * Незавершённые бронирования лежат в колесе таймеров с шагом tick-ms; каждый такт сработавшие
+ * переводятся в новую фазу одним UPDATE на фазу. Фаза в БД отстаёт от реального времени не больше чем на такт.
+ * <p>
+ * Дополнительно хранится число бронирований каждого автора по фазам. Оно не меньше реального:
+ * увеличивается до вставки или перевода, уменьшается после фиксации, поэтому ноль означает,
+ * что бронирований в фазе точно нет, и запрос к БД можно не делать.
+ * Как и календарь бронирований, рассчитано на один экземпляр сервера.
+ */
+@Slf4j
+@Service
+public class BookingPhaseScheduler {
+    private static final int WHEEL_SIZE = 64;
+
+    private final BookingRepository bookingRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final TimingWheel<PendingBooking> wheel;
+    private final Map<Long, PendingBooking> pending = new HashMap<>();
+    private final List<PendingBooking> overdue = new ArrayList<>();
+    private final Map<Long, AtomicLongArray> counts = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    public BookingPhaseScheduler(BookingRepository bookingRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${shareit.booking-phase.tick-ms:1000}") long tickMs) {
+        this.bookingRepository = bookingRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.wheel = new TimingWheel<>(tickMs, WHEEL_SIZE, toMillis(LocalDateTime.now()));
+    }
+
+    /**
+     * Догоняющий перевод фаз в БД, загрузка незавершённых бронирований в колесо и подсчёт по авторам.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        LocalDateTime now = LocalDateTime.now();
+        transactionTemplate.executeWithoutResult(status -> {
+            int past = bookingRepository.updatePastPhase(now);
+            int current = bookingRepository.updateCurrentPhase(now);
+            log.info("Переведено в фазу PAST {} и в фазу CURRENT {} бронирований", past, current);
+        });
+        readOnlyTransactionTemplate.executeWithoutResult(status -> {
+            bookingRepository.countByBookerIdAndPhase().forEach(count ->
+                    counts.computeIfAbsent(count.getBookerId(), id -> newCounts())
+                            .addAndGet(count.getPhase().ordinal(), count.getCount()));
+            try (Stream<Booking> bookings = bookingRepository.streamAllByPhaseIn(
+                    List.of(BookingPhase.FUTURE, BookingPhase.CURRENT))) {
+                bookings.forEach(booking -> schedule(toPending(booking)));
+            }
+        });
+        ready = true;
+        log.info("Загружено {} незавершённых бронирований", pending());
+    }
+
+    /**
+     * Учёт нового бронирования: счётчик — сразу, колесо — после фиксации транзакции.
+     */
+    public void onBookingSaved(Booking booking) {
+        PendingBooking value = toPending(booking);
+        increment(value.bookerId, value.phase);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    schedule(value);
+                }
+            });
+        } else {
+            schedule(value);
+        }
+    }
+
+    /**
+     * false — у автора точно нет бронирований в фазе phase.
+     */
+    public boolean mayHaveBookings(long bookerId, BookingPhase phase) {
+        if (!ready) {
+            return true;
+        }
+        AtomicLongArray bookerCounts = counts.get(bookerId);
+        return bookerCounts != null && bookerCounts.get(phase.ordinal()) > 0;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking-phase.tick-ms:1000}")
+    public void tick() {
+        advance(LocalDateTime.now());
+    }
+
+    /**
+     * Перевод бронирований, у которых к моменту now наступило начало или конец.
+     */
+    public void advance(LocalDateTime now) {
+        List<PendingBooking> due = new ArrayList<>();
+        synchronized (this) {
+            due.addAll(overdue);
+            overdue.clear();
+            wheel.advance(toMillis(now), value -> {
+                if (pending.get(value.id) == value) {
+                    due.add(value);
+                }
+            });
+        }
+        if (due.isEmpty()) {
+            return;
+        }
+        Map<BookingPhase, List<Long>> idsByPhase = new EnumMap<>(BookingPhase.class);
+        List<PendingBooking> moved = new ArrayList<>(due.size());
+        for (PendingBooking value : due) {
+            BookingPhase phase = BookingPhase.of(value.start, value.end, now);
+            idsByPhase.computeIfAbsent(phase, p -> new ArrayList<>()).add(value.id);
+            increment(value.bookerId, phase);
+            moved.add(new PendingBooking(value.id, value.bookerId, value.start, value.end, phase));
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    idsByPhase.forEach((phase, ids) -> bookingRepository.updatePhase(ids, phase)));
+        } catch (RuntimeException e) {
+            log.warn("Не удалось перевести фазы бронирований {}, повтор на следующем такте", idsByPhase, e);
+            for (PendingBooking value : moved) {
+                decrement(value.bookerId, value.phase);
+            }
+            synchronized (this) {
+                overdue.addAll(due);
+            }
+            return;
+        }
+        for (int i = 0; i < due.size(); i++) {
+            decrement(due.get(i).bookerId, due.get(i).phase);
+            schedule(moved.get(i));
+        }
+        log.debug("Переведены фазы бронирований {}", idsByPhase);
+    }
+
+    synchronized int pending() {
+        return pending.size();
+    }
+
+    private synchronized void schedule(PendingBooking value) {
+        if (value.phase == BookingPhase.PAST) {
+            pending.remove(value.id);
+            return;
+        }
+        PendingBooking previous = pending.get(value.id);
+        if (previous != null && previous.phase.compareTo(value.phase) >= 0) {
+            return;
+        }
+        pending.put(value.id, value);
+        long expiration = toMillis(value.phase == BookingPhase.FUTURE ? value.start : value.end);
+        if (!wheel.add(expiration, value)) {
+            overdue.add(value);
+        }
+    }
+
+    private void increment(long bookerId, BookingPhase phase) {
+        counts.computeIfAbsent(bookerId, id -> newCounts()).incrementAndGet(phase.ordinal());
+    }
+
+    private void decrement(long bookerId, BookingPhase phase) {
+        AtomicLongArray bookerCounts = counts.get(bookerId);
+        if (bookerCounts != null) {
+            bookerCounts.decrementAndGet(phase.ordinal());
+        }
+    }
+
+    private static AtomicLongArray newCounts() {
+        return new AtomicLongArray(BookingPhase.values().length);
+    }
+
+    private static PendingBooking toPending(Booking booking) {
+        BookingPhase phase = booking.getPhase() != null ? booking.getPhase()
+                : BookingPhase.of(booking.getStart(), booking.getEnd(), LocalDateTime.now());
+        return new PendingBooking(booking.getId(), booking.getBooker().getId(), booking.getStart(), booking.getEnd(), phase);
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    /**
+     * Бронирование в колесе: phase — текущая фаза, срабатывание — в начале (FUTURE) или в конце (CURRENT).
+     */
+    private static final class PendingBooking {
+        private final long id;
+        private final long bookerId;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+        private final BookingPhase phase;
+
+        private PendingBooking(long id, long bookerId, LocalDateTime start, LocalDateTime end, BookingPhase phase) {
+            this.id = id;
+            this.bookerId = bookerId;
+            this.start = start;
+            this.end = end;
+            this.phase = phase;
+        }
+    }
+}
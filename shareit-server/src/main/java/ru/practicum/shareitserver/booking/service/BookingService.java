@@ -1,9 +1,17 @@
 package ru.practicum.shareitserver.booking.service;
 
+import org.springframework.data.domain.Slice;
 import ru.practicum.shareitserver.booking.BookingState;
+import ru.practicum.shareitserver.booking.model.AvailabilitySlot;
+import ru.practicum.shareitserver.booking.model.BookingStatusResult;
+import ru.practicum.shareitserver.booking.model.BookingView;
+import ru.practicum.shareitserver.booking.model.ItemBookings;
 import ru.practicum.shareitserver.booking.model.entity.Booking;
+import ru.practicum.shareitserver.common.model.Cursor;
 import ru.practicum.shareitserver.item.model.entity.Item;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface BookingService {
@@ -11,13 +19,44 @@ public interface BookingService {
 
     Booking addBooking(long userId, long itemId, Booking booking);
 
+    /**
+     * Бронирование нескольких вещей в одной транзакции: вещи проверяются одним запросом, бронирования
+     * вставляются одним пакетом. Если хотя бы одно бронирование невозможно, не создаётся ни одно.
+     * booking.item.id — id бронируемой вещи.
+     */
+    List<Booking> addBookings(long userId, List<Booking> bookings);
+
     Booking updateBookingStatus(long userId, long bookingId, Boolean approved);
 
-    List<Booking> getBookingsByBookerId(long userId, BookingState state, Integer from, Integer size);
+    /**
+     * Подтверждение или отклонение бронирований вещей владельца userId в одной транзакции:
+     * проверка владельца одним запросом и один UPDATE. Результаты — по каждому id в порядке запроса, без повторов.
+     */
+    List<BookingStatusResult> updateBookingStatuses(long userId, List<Long> bookingIds, Boolean approved);
+
+    List<BookingView> getBookingsByBookerId(long userId, BookingState state, Integer from, Integer size);
+
+    List<BookingView> getBookingsByOwnerId(long userId, BookingState state, Integer from, Integer size);
 
-    List<Booking> getBookingsByOwnerId(long userId, BookingState state, Integer from, Integer size);
+    /**
+     * Постраничная выдача по ключу (start, id); cursor == null — первая страница.
+     */
+    Slice<BookingView> getBookingsByBookerId(long userId, BookingState state, Cursor cursor, Integer size);
+
+    Slice<BookingView> getBookingsByOwnerId(long userId, BookingState state, Cursor cursor, Integer size);
 
     Booking getLastBookingByItemId(long userId, Item item);
 
     Booking getNextBookingByItemId(long userId, Item item);
+
+    /**
+     * Последние и ближайшие бронирования вещей владельца одним запросом.
+     */
+    ItemBookings getBookingsByItemIds(Collection<Long> itemIds);
+
+    /**
+     * Свободные и занятые интервалы вещи в [from, to) по календарю в памяти, без запросов к бронированиям.
+     * По умолчанию from — текущий момент, to — через 30 дней после from.
+     */
+    List<AvailabilitySlot> getItemAvailability(long userId, long itemId, LocalDateTime from, LocalDateTime to);
 }
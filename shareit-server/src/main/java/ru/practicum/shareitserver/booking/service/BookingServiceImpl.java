@@ -1,34 +1,59 @@
 package ru.practicum.shareitserver.booking.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareitserver.booking.BookingPhase;
 import ru.practicum.shareitserver.booking.BookingState;
 import ru.practicum.shareitserver.booking.Status;
+import ru.practicum.shareitserver.booking.model.AvailabilitySlot;
+import ru.practicum.shareitserver.booking.model.BookingStatusResult;
+import ru.practicum.shareitserver.booking.model.BookingView;
+import ru.practicum.shareitserver.booking.model.ItemBookings;
 import ru.practicum.shareitserver.booking.model.entity.Booking;
+import ru.practicum.shareitserver.booking.repository.BookingBatchRepository;
+import ru.practicum.shareitserver.booking.repository.BookingCalendar;
 import ru.practicum.shareitserver.booking.repository.BookingRepository;
 import ru.practicum.shareitserver.common.exception.BadRequestException;
 import ru.practicum.shareitserver.common.exception.NotFoundException;
+import ru.practicum.shareitserver.common.model.Cursor;
 import ru.practicum.shareitserver.item.model.entity.Item;
 import ru.practicum.shareitserver.item.service.ItemService;
+import ru.practicum.shareitserver.user.model.entity.User;
 import ru.practicum.shareitserver.user.service.UserService;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 @Slf4j
 @Service
+@Timed("shareit.service")
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class BookingServiceImpl implements BookingService {
+    private static final int DEFAULT_AVAILABILITY_DAYS = 30;
+
     private final BookingRepository bookingRepository;
+    private final BookingBatchRepository bookingBatchRepository;
     private final ItemService itemService;
     private final UserService userService;
+    private final BookingCalendar bookingCalendar;
+    private final BookingPhaseScheduler bookingPhaseScheduler;
 
     @Override
     public Booking getBookingById(long userId, long bookingId) {
@@ -51,22 +76,86 @@ public class BookingServiceImpl implements BookingService {
         if (booking.getStart().isBefore(LocalDateTime.now()) || booking.getEnd().isBefore(LocalDateTime.now())) {
             throw new BadRequestException("Нельзя забронировать вещь на прошлую дату!");
         }
-        Item item = itemService.getItemId(userId, itemId);
+        if (!booking.getStart().isBefore(booking.getEnd())) {
+            throw new BadRequestException("Начало бронирования должно быть раньше конца!");
+        }
+        Item item = itemService.getItemForBooking(userId, itemId);
         if (!item.getAvailable()) {
             throw new BadRequestException("Вещь с id " + itemId + " недоступна!");
         }
         if (item.getOwner().getId() == userId) {
             throw new NotFoundException("Нельзя забронировать вещь владельцу!");
         }
+        if (bookingRepository.existsOverlapping(itemId, booking.getStart(), booking.getEnd(), Status.BLOCKING)) {
+            throw new BadRequestException("Вещь с id " + itemId + " уже забронирована на этот период!");
+        }
         booking.setItem(item);
         booking.setBooker(userService.getUserById(userId));
         booking.setStatus(Status.WAITING);
 
         booking = bookingRepository.save(booking);
+        bookingCalendar.onBookingSaved(booking);
+        bookingPhaseScheduler.onBookingSaved(booking);
         log.debug("Добавлено бронирования {}", booking);
         return booking;
     }
 
+    @Override
+    @Transactional
+    public List<Booking> addBookings(long userId, List<Booking> bookings) {
+        log.debug("Пакетное добавление бронирований {} пользователем с userId={}", bookings, userId);
+        if (bookings.isEmpty()) {
+            return List.of();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (Booking booking : bookings) {
+            if (booking.getStart().isBefore(now) || booking.getEnd().isBefore(now)) {
+                throw new BadRequestException("Нельзя забронировать вещь на прошлую дату!");
+            }
+            if (!booking.getStart().isBefore(booking.getEnd())) {
+                throw new BadRequestException("Начало бронирования должно быть раньше конца!");
+            }
+        }
+        User booker = userService.getUserById(userId);
+        Set<Long> itemIds = bookings.stream()
+                .map(booking -> booking.getItem().getId())
+                .collect(Collectors.toSet());
+        Map<Long, Item> items = itemService.getItemsForBooking(userId, itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        for (Item item : items.values()) {
+            if (!item.getAvailable()) {
+                throw new BadRequestException("Вещь с id " + item.getId() + " недоступна!");
+            }
+            if (item.getOwner().getId() == userId) {
+                throw new NotFoundException("Нельзя забронировать вещь владельцу!");
+            }
+        }
+        LocalDateTime minStart = bookings.stream().map(Booking::getStart).min(LocalDateTime::compareTo).orElseThrow();
+        LocalDateTime maxEnd = bookings.stream().map(Booking::getEnd).max(LocalDateTime::compareTo).orElseThrow();
+        List<Booking> busy = new ArrayList<>(bookingRepository.findOverlapping(itemIds, minStart, maxEnd, Status.BLOCKING));
+        for (Booking booking : bookings) {
+            long itemId = booking.getItem().getId();
+            boolean overlapping = busy.stream().anyMatch(other -> other.getItem().getId() == itemId
+                    && other.getStart().isBefore(booking.getEnd()) && other.getEnd().isAfter(booking.getStart()));
+            if (overlapping) {
+                throw new BadRequestException("Вещь с id " + itemId + " уже забронирована на этот период!");
+            }
+            booking.setItem(items.get(itemId));
+            booking.setBooker(booker);
+            booking.setStatus(Status.WAITING);
+            booking.setPhase(BookingPhase.of(booking.getStart(), booking.getEnd(), now));
+            busy.add(booking);
+        }
+
+        List<Booking> saved = bookingBatchRepository.insertAll(bookings);
+        for (Booking booking : saved) {
+            bookingCalendar.onBookingSaved(booking);
+            bookingPhaseScheduler.onBookingSaved(booking);
+        }
+        log.debug("Добавлено {} бронирований", saved.size());
+        return saved;
+    }
+
     @Override
     @Transactional
     public Booking updateBookingStatus(long userId, long bookingId, Boolean approved) {
@@ -81,17 +170,54 @@ public class BookingServiceImpl implements BookingService {
         booking.setStatus(approved ? Status.APPROVED : Status.REJECTED);
 
         booking = bookingRepository.save(booking);
+        bookingCalendar.onBookingSaved(booking);
         log.debug("Успешное проставление статуса для бронирования {}", booking);
         return booking;
     }
 
     @Override
-    public List<Booking> getBookingsByBookerId(long userId, BookingState state, Integer from, Integer size) {
+    @Transactional
+    public List<BookingStatusResult> updateBookingStatuses(long userId, List<Long> bookingIds, Boolean approved) {
+        log.debug("Проставление статуса бронированиям с bookingId={} пользователем с userId={}", bookingIds, userId);
+        userService.checkUser(userId);
+        Set<Long> ids = new LinkedHashSet<>(bookingIds);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Status status = approved ? Status.APPROVED : Status.REJECTED;
+        Map<Long, Booking> bookings = bookingRepository.findAllByIdInAndOwnerIdForUpdate(ids, userId).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+        List<BookingStatusResult> results = new ArrayList<>(ids.size());
+        List<Long> waitingIds = new ArrayList<>();
+        for (long id : ids) {
+            Booking booking = bookings.get(id);
+            if (booking == null) {
+                results.add(new BookingStatusResult(id, false, null,
+                        "Бронирования с bookingId=" + id + " нет среди бронирований вещей пользователя!"));
+            } else if (booking.getStatus() != Status.WAITING) {
+                results.add(new BookingStatusResult(id, false, booking.getStatus(),
+                        "Подтвердить или отклонить запрос на бронирование может только в статусе WAITING!"));
+            } else {
+                results.add(new BookingStatusResult(id, true, status, null));
+                waitingIds.add(id);
+                bookingCalendar.onBookingSaved(new Booking(id, booking.getStart(), booking.getEnd(),
+                        booking.getItem(), booking.getBooker(), status));
+            }
+        }
+        if (!waitingIds.isEmpty()) {
+            bookingRepository.updateStatus(waitingIds, status);
+        }
+        log.debug("Статус {} проставлен {} бронированиям из {}", status, waitingIds.size(), ids.size());
+        return results;
+    }
+
+    @Override
+    public List<BookingView> getBookingsByBookerId(long userId, BookingState state, Integer from, Integer size) {
         log.debug("Получение бронирования для userId={} со state={}", userId, state);
         userService.checkUser(userId);
         log.info("from={}, size={}", from, size);
         PageRequest pr = PageRequest.of(from / size, size);
-        List<Booking> bookingList;
+        List<BookingView> bookingList;
         switch (state) {
             case WAITING:
             case REJECTED:
@@ -99,13 +225,13 @@ public class BookingServiceImpl implements BookingService {
                 bookingList = bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(userId, status, pr).toList();
                 break;
             case PAST:
-                bookingList = bookingRepository.findAllByBookerIdAndEndBeforeOrderByStartDesc(userId, LocalDateTime.now(), pr).toList();
-                break;
             case CURRENT:
-                bookingList = bookingRepository.findAllByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(userId, LocalDateTime.now(), LocalDateTime.now(), pr).toList();
-                break;
             case FUTURE:
-                bookingList = bookingRepository.findAllByBookerIdAndStartAfterOrderByStartDesc(userId, LocalDateTime.now(), pr).toList();
+                BookingPhase phase = BookingPhase.valueOf(String.valueOf(state));
+                if (!bookingPhaseScheduler.mayHaveBookings(userId, phase)) {
+                    return List.of();
+                }
+                bookingList = bookingRepository.findAllByBookerIdAndPhaseOrderByStartDesc(userId, phase, pr).toList();
                 break;
             default:
                 bookingList = bookingRepository.findAllByBookerIdOrderByStartDesc(userId, pr).toList();
@@ -114,15 +240,106 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
-    public List<Booking> getBookingsByOwnerId(long userId, BookingState state, Integer from, Integer size) {
+    public List<BookingView> getBookingsByOwnerId(long userId, BookingState state, Integer from, Integer size) {
         userService.checkUser(userId);
         log.debug("Получение бронирования вещей userId={} со state={}", userId, state);
-        List<Item> itemList = itemService.getItemsByUserId(userId);
         log.info("from={}, size={}", from, size);
         PageRequest pr = PageRequest.of(from / size, size);
-        return itemList.stream()
-                .flatMap(item -> getBookingStream(state, item, pr))
-                .collect(Collectors.toList());
+        List<BookingView> bookingList;
+        switch (state) {
+            case WAITING:
+            case REJECTED:
+                Status status = Status.valueOf(String.valueOf(state));
+                bookingList = bookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDesc(userId, status, pr).toList();
+                break;
+            case PAST:
+            case CURRENT:
+            case FUTURE:
+                BookingPhase phase = BookingPhase.valueOf(String.valueOf(state));
+                bookingList = bookingRepository.findAllByItemOwnerIdAndPhaseOrderByStartDesc(userId, phase, pr).toList();
+                break;
+            default:
+                bookingList = bookingRepository.findAllByItemOwnerIdOrderByStartDesc(userId, pr).toList();
+        }
+        return bookingList;
+    }
+
+    @Override
+    public Slice<BookingView> getBookingsByBookerId(long userId, BookingState state, Cursor cursor, Integer size) {
+        log.debug("Получение бронирования для userId={} со state={} по курсору", userId, state);
+        userService.checkUser(userId);
+        if (cursor == null) {
+            PageRequest pr = PageRequest.of(0, size, Sort.by(Sort.Direction.DESC, "id"));
+            switch (state) {
+                case WAITING:
+                case REJECTED:
+                    Status status = Status.valueOf(String.valueOf(state));
+                    return bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(userId, status, pr);
+                case PAST:
+                case CURRENT:
+                case FUTURE:
+                    BookingPhase phase = BookingPhase.valueOf(String.valueOf(state));
+                    if (!bookingPhaseScheduler.mayHaveBookings(userId, phase)) {
+                        return new SliceImpl<>(List.of(), pr, false);
+                    }
+                    return bookingRepository.findAllByBookerIdAndPhaseOrderByStartDesc(userId, phase, pr);
+                default:
+                    return bookingRepository.findAllByBookerIdOrderByStartDesc(userId, pr);
+            }
+        }
+        PageRequest pr = PageRequest.of(0, size);
+        switch (state) {
+            case WAITING:
+            case REJECTED:
+                Status status = Status.valueOf(String.valueOf(state));
+                return bookingRepository.seekByBookerIdAndStatus(userId, status, cursor.getStart(), cursor.getId(), pr);
+            case PAST:
+            case CURRENT:
+            case FUTURE:
+                BookingPhase phase = BookingPhase.valueOf(String.valueOf(state));
+                if (!bookingPhaseScheduler.mayHaveBookings(userId, phase)) {
+                    return new SliceImpl<>(List.of(), pr, false);
+                }
+                return bookingRepository.seekByBookerIdAndPhase(userId, phase, cursor.getStart(), cursor.getId(), pr);
+            default:
+                return bookingRepository.seekByBookerId(userId, cursor.getStart(), cursor.getId(), pr);
+        }
+    }
+
+    @Override
+    public Slice<BookingView> getBookingsByOwnerId(long userId, BookingState state, Cursor cursor, Integer size) {
+        log.debug("Получение бронирования вещей userId={} со state={} по курсору", userId, state);
+        userService.checkUser(userId);
+        if (cursor == null) {
+            PageRequest pr = PageRequest.of(0, size, Sort.by(Sort.Direction.DESC, "id"));
+            switch (state) {
+                case WAITING:
+                case REJECTED:
+                    Status status = Status.valueOf(String.valueOf(state));
+                    return bookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDesc(userId, status, pr);
+                case PAST:
+                case CURRENT:
+                case FUTURE:
+                    BookingPhase phase = BookingPhase.valueOf(String.valueOf(state));
+                    return bookingRepository.findAllByItemOwnerIdAndPhaseOrderByStartDesc(userId, phase, pr);
+                default:
+                    return bookingRepository.findAllByItemOwnerIdOrderByStartDesc(userId, pr);
+            }
+        }
+        PageRequest pr = PageRequest.of(0, size);
+        switch (state) {
+            case WAITING:
+            case REJECTED:
+                Status status = Status.valueOf(String.valueOf(state));
+                return bookingRepository.seekByOwnerIdAndStatus(userId, status, cursor.getStart(), cursor.getId(), pr);
+            case PAST:
+            case CURRENT:
+            case FUTURE:
+                BookingPhase phase = BookingPhase.valueOf(String.valueOf(state));
+                return bookingRepository.seekByOwnerIdAndPhase(userId, phase, cursor.getStart(), cursor.getId(), pr);
+            default:
+                return bookingRepository.seekByOwnerId(userId, cursor.getStart(), cursor.getId(), pr);
+        }
     }
 
     @Override
@@ -145,33 +362,41 @@ public class BookingServiceImpl implements BookingService {
         return null;
     }
 
+    @Override
+    public ItemBookings getBookingsByItemIds(Collection<Long> itemIds) {
+        log.debug("Получение последних и ближайших бронирований вещей с itemId={}", itemIds);
+        Map<Long, Booking> lastBookings = new HashMap<>();
+        Map<Long, Booking> nextBookings = new HashMap<>();
+        if (itemIds.isEmpty()) {
+            return new ItemBookings(lastBookings, nextBookings);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (Booking booking : bookingRepository.findLastAndNextByItemIdIn(itemIds, now)) {
+            long itemId = booking.getItem().getId();
+            if (booking.getEnd().isBefore(now)) {
+                lastBookings.put(itemId, booking);
+            } else {
+                nextBookings.put(itemId, booking);
+            }
+        }
+        return new ItemBookings(lastBookings, nextBookings);
+    }
+
+    @Override
+    public List<AvailabilitySlot> getItemAvailability(long userId, long itemId, LocalDateTime from, LocalDateTime to) {
+        log.debug("Получение календаря вещи с itemId={} пользователем с userId={} с {} по {}", itemId, userId, from, to);
+        itemService.getItemId(userId, itemId);
+        LocalDateTime start = from != null ? from : LocalDateTime.now();
+        LocalDateTime end = to != null ? to : start.plusDays(DEFAULT_AVAILABILITY_DAYS);
+        if (!start.isBefore(end)) {
+            throw new BadRequestException("Начало периода должно быть раньше конца!");
+        }
+        return bookingCalendar.getSlots(itemId, start, end);
+    }
+
     private Booking getBookingById(long bookingId) {
         return bookingRepository.findById(bookingId).orElseThrow(
                 () -> new NotFoundException("Бронирования с bookingId=" + bookingId + " не существует!")
         );
     }
-
-    private Stream<Booking> getBookingStream(BookingState state, Item item, PageRequest pr) {
-        long itemId = item.getId();
-        List<Booking> bookings;
-        switch (state) {
-            case WAITING:
-            case REJECTED:
-                Status status = Status.valueOf(String.valueOf(state));
-                bookings = bookingRepository.findAllByItemIdAndStatusOrderByStartDesc(itemId, status, pr).toList();
-                break;
-            case PAST:
-                bookings = bookingRepository.findAllByItemIdAndEndBeforeOrderByStartDesc(itemId, LocalDateTime.now(), pr).toList();
-                break;
-            case CURRENT:
-                bookings = bookingRepository.findAllByItemIdAndStartBeforeAndEndAfterOrderByStartDesc(itemId, LocalDateTime.now(), LocalDateTime.now(), pr).toList();
-                break;
-            case FUTURE:
-                bookings = bookingRepository.findAllByItemIdAndStartAfterOrderByStartDesc(itemId, LocalDateTime.now(), pr).toList();
-                break;
-            default:
-                bookings = bookingRepository.findAllByItemIdOrderByStartDesc(itemId, pr).toList();
-        }
-        return bookings.stream();
-    }
 }
@@ -0,0 +1,100 @@
+package ru.practicum.shareitserver.booking.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Иерархическое колесо таймеров: на нижнем уровне wheelSize ячеек по tickMs, каждый следующий уровень
+ * в wheelSize раз грубее и создаётся при первой необходимости. Добавление — O(1), сдвиг на такт —
+ * O(1) плюс число сработавших и спустившихся на уровень ниже записей, независимо от общего числа записей.
+ * Запись срабатывает на первом такте не раньше своего срока, то есть опаздывает не больше чем на такт.
+ * Время — миллисекунды от произвольной точки отсчёта; класс не потокобезопасен.
+ */
+public class TimingWheel<T> {
+    private final long tickMs;
+    private final int wheelSize;
+    private final long interval;
+    private final List<Entry<T>>[] buckets;
+    private long currentTime;
+    private TimingWheel<T> overflow;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickMs, int wheelSize, long startMs) {
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+        this.interval = tickMs * wheelSize;
+        this.buckets = new List[wheelSize];
+        this.currentTime = startMs - Math.floorMod(startMs, tickMs);
+    }
+
+    /**
+     * Добавление записи со сроком expirationMs; false — срок уже наступил, запись не добавлена.
+     * Внутри срок округляется вверх до такта, чтобы ячейка нижнего уровня не срабатывала раньше срока.
+     */
+    public boolean add(long expirationMs, T value) {
+        return add(new Entry<>(expirationMs + tickMs - 1, value));
+    }
+
+    /**
+     * Сдвиг колеса до момента timeMs; сработавшие записи передаются в expired в порядке тактов.
+     */
+    public void advance(long timeMs, Consumer<T> expired) {
+        List<Entry<T>> flushed = new ArrayList<>();
+        while (currentTime + tickMs <= timeMs) {
+            advanceClock(currentTime + tickMs, flushed);
+            for (Entry<T> entry : flushed) {
+                if (!add(entry)) {
+                    expired.accept(entry.value);
+                }
+            }
+            flushed.clear();
+        }
+    }
+
+    private boolean add(Entry<T> entry) {
+        if (entry.expirationMs < currentTime + tickMs) {
+            return false;
+        }
+        if (entry.expirationMs < currentTime + interval) {
+            int index = (int) Math.floorMod(Math.floorDiv(entry.expirationMs, tickMs), (long) wheelSize);
+            if (buckets[index] == null) {
+                buckets[index] = new ArrayList<>();
+            }
+            buckets[index].add(entry);
+            return true;
+        }
+        if (overflow == null) {
+            overflow = new TimingWheel<>(interval, wheelSize, currentTime);
+        }
+        return overflow.add(entry);
+    }
+
+    /**
+     * Сдвиг этого уровня и всех вышестоящих до timeMs; записи наступившей ячейки уровня — в flushed.
+     */
+    private void advanceClock(long timeMs, List<Entry<T>> flushed) {
+        if (timeMs < currentTime + tickMs) {
+            return;
+        }
+        currentTime = timeMs - Math.floorMod(timeMs, tickMs);
+        int index = (int) Math.floorMod(Math.floorDiv(currentTime, tickMs), (long) wheelSize);
+        if (buckets[index] != null) {
+            flushed.addAll(buckets[index]);
+            buckets[index] = null;
+        }
+        if (overflow != null) {
+            overflow.advanceClock(currentTime, flushed);
+        }
+    }
+
+    private static final class Entry<T> {
+        private final long expirationMs;
+        private final T value;
+
+        private Entry(long expirationMs, T value) {
+            this.expirationMs = expirationMs;
+            this.value = value;
+        }
+    }
+}
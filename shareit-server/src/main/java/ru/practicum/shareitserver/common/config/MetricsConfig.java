@@ -0,0 +1,61 @@
+package ru.practicum.shareitserver.common.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Метрики сервера (экспорт в /actuator/prometheus), помимо стандартных http.server.requests,
+ * spring.data.repository.invocations, hikaricp.*, hibernate.*, jvm.*:
+ * shareit.service — время методов сервисов с @Timed;
+ * hibernate.request.* — JDBC-запросы и загрузки сущностей за один HTTP-запрос.
+ * Метрики hibernate.* самого Hibernate требуют spring.jpa.properties.hibernate.generate_statistics=true.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    @Bean
+    public RequestStatistics requestStatistics() {
+        return new RequestStatistics();
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer requestStatisticsCustomizer(RequestStatistics requestStatistics) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, requestStatistics);
+    }
+
+    @Bean
+    public SmartInitializingSingleton requestStatisticsListener(EntityManagerFactory entityManagerFactory,
+                                                                RequestStatistics requestStatistics) {
+        return () -> entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class)
+                .appendListeners(EventType.POST_LOAD, requestStatistics);
+    }
+
+    @Bean
+    public WebMvcConfigurer requestStatisticsConfigurer(MeterRegistry meterRegistry) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(new RequestStatisticsInterceptor(meterRegistry));
+            }
+        };
+    }
+}
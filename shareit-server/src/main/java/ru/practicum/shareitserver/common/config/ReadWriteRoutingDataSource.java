@@ -0,0 +1,69 @@
+package ru.practicum.shareitserver.common.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Маршрутизация соединений: транзакции только для чтения — на реплику, остальное — на основную БД.
+ * После фиксации пишущей транзакции пользователь из X-Sharer-User-Id читает с основной БД ещё stickyFor,
+ * пока реплика догоняет, — так он видит свои изменения.
+ * Ключ определяется при получении соединения, поэтому снаружи нужен LazyConnectionDataSourceProxy:
+ * JpaTransactionManager берёт соединение раньше, чем отмечает транзакцию как readOnly.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+    private static final ThreadLocal<Long> USER_ID = new ThreadLocal<>();
+
+    private final Cache<Long, Boolean> stickyUsers;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, Duration stickyFor) {
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+        this.stickyUsers = Caffeine.newBuilder()
+                .expireAfterWrite(stickyFor)
+                .build();
+    }
+
+    /**
+     * Пользователь текущего запроса; null — запрос без пользователя или фоновая задача.
+     */
+    public static void setUserId(Long userId) {
+        if (userId == null) {
+            USER_ID.remove();
+        } else {
+            USER_ID.set(userId);
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Long userId = USER_ID.get();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (userId != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        stickyUsers.put(userId, Boolean.TRUE);
+                    }
+                });
+            }
+            return Route.PRIMARY;
+        }
+        if (userId != null && stickyUsers.getIfPresent(userId) != null) {
+            return Route.PRIMARY;
+        }
+        return Route.REPLICA;
+    }
+
+    public enum Route {
+        PRIMARY,
+        REPLICA
+    }
+}
@@ -0,0 +1,103 @@
+package ru.practicum.shareitserver.common.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.sql.DataSource;
+import java.time.Duration;
+
+import static ru.practicum.shareitserver.common.Constants.X_SHARER_USER_ID;
+
+/**
+ * Профиль replica: основная БД из spring.datasource.*, реплика из shareit.datasource.replica.*.
+ * Flyway мигрирует только основную БД (вне транзакции соединение всегда основное), реплика получает схему
+ * репликацией; для локального запуска на двух независимых БД — shareit.datasource.replica-migrate=true.
+ */
+@Slf4j
+@Configuration
+@Profile("replica")
+public class ReplicaRoutingConfig implements WebMvcConfigurer {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("shareit.datasource.replica")
+    public HikariDataSource replicaDataSource() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                 @Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                 @Value("${shareit.datasource.replica-sticky-for:5s}") Duration stickyFor) {
+        log.info("Чтение — с реплики, запись — в основную БД; после записи пользователь читает с основной {}",
+                stickyFor);
+        return new LazyConnectionDataSourceProxy(
+                new ReadWriteRoutingDataSource(primaryDataSource, replicaDataSource, stickyFor));
+    }
+
+    @Bean
+    @ConditionalOnProperty("shareit.datasource.replica-migrate")
+    public FlywayMigrationStrategy replicaMigrationStrategy(
+            @Qualifier("replicaDataSource") DataSource replicaDataSource) {
+        return flyway -> {
+            flyway.migrate();
+            Flyway.configure()
+                    .configuration(flyway.getConfiguration())
+                    .dataSource(replicaDataSource)
+                    .load()
+                    .migrate();
+            log.info("Схема реплики создана миграцией основной БД");
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                String userId = request.getHeader(X_SHARER_USER_ID);
+                try {
+                    ReadWriteRoutingDataSource.setUserId(userId == null ? null : Long.valueOf(userId));
+                } catch (NumberFormatException e) {
+                    ReadWriteRoutingDataSource.setUserId(null);
+                }
+                return true;
+            }
+
+            @Override
+            public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                        Exception ex) {
+                ReadWriteRoutingDataSource.setUserId(null);
+            }
+        });
+    }
+}
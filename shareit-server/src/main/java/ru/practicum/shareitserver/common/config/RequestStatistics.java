@@ -0,0 +1,52 @@
+package ru.practicum.shareitserver.common.config;
+
+import lombok.Getter;
+import org.hibernate.event.spi.PostLoadEvent;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Счётчики JDBC-запросов и загруженных в сессию сущностей (из БД или кэша второго уровня)
+ * в потоке текущего HTTP-запроса (между start и stop); фоновые задачи не считаются.
+ * Подключается через публичные точки расширения Hibernate — StatementInspector и слушатель POST_LOAD —
+ * и не требует hibernate.generate_statistics.
+ */
+public class RequestStatistics implements StatementInspector, PostLoadEventListener {
+    private static final ThreadLocal<Counts> COUNTS = new ThreadLocal<>();
+
+    public static void start() {
+        COUNTS.set(new Counts());
+    }
+
+    /**
+     * Счётчики запроса; null — start в этом потоке не вызывался.
+     */
+    public static Counts stop() {
+        Counts counts = COUNTS.get();
+        COUNTS.remove();
+        return counts;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        Counts counts = COUNTS.get();
+        if (counts != null) {
+            counts.statements++;
+        }
+        return sql;
+    }
+
+    @Override
+    public void onPostLoad(PostLoadEvent event) {
+        Counts counts = COUNTS.get();
+        if (counts != null) {
+            counts.entityLoads++;
+        }
+    }
+
+    @Getter
+    public static final class Counts {
+        private long statements;
+        private long entityLoads;
+    }
+}
@@ -0,0 +1,52 @@
+package ru.practicum.shareitserver.common.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Запись счётчиков RequestStatistics за HTTP-запрос в распределения hibernate.request.statements
+ * и hibernate.request.entity.loads с тегами method и uri (шаблон пути, как в http.server.requests).
+ */
+@RequiredArgsConstructor
+public class RequestStatisticsInterceptor implements HandlerInterceptor {
+    private static final String UNKNOWN_URI = "UNKNOWN";
+
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        RequestStatistics.start();
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        RequestStatistics.Counts counts = RequestStatistics.stop();
+        if (counts == null) {
+            return;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? UNKNOWN_URI : pattern.toString();
+        summary("hibernate.request.statements", "JDBC-запросы за HTTP-запрос", request.getMethod(), uri)
+                .record(counts.getStatements());
+        summary("hibernate.request.entity.loads", "Загрузки сущностей за HTTP-запрос", request.getMethod(), uri)
+                .record(counts.getEntityLoads());
+    }
+
+    private DistributionSummary summary(String name, String description, String method, String uri) {
+        return DistributionSummary.builder(name)
+                .description(description)
+                .tag("method", method)
+                .tag("uri", uri)
+                .publishPercentileHistogram()
+                .maximumExpectedValue(1000.0)
+                .register(meterRegistry);
+    }
+}
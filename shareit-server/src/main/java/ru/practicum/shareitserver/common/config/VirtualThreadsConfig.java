@@ -0,0 +1,92 @@
+package ru.practicum.shareitserver.common.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Профиль virtual-threads: запросы Tomcat обрабатываются в виртуальных потоках (нужен JDK 21+).
+ * Число одновременных обращений к БД ограничивается отдельно, чтобы тысячи виртуальных потоков
+ * ждали соединения на семафоре, а не в очереди пула Hikari.
+ */
+@Slf4j
+@Configuration
+@Profile("virtual-threads")
+public class VirtualThreadsConfig {
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadsProtocolHandlerCustomizer() {
+        ExecutorService executor = newVirtualThreadPerTaskExecutor();
+        log.info("Обработка запросов в виртуальных потоках");
+        return protocolHandler -> protocolHandler.setExecutor(executor);
+    }
+
+    @Bean
+    public static BeanPostProcessor boundedDataSourcePostProcessor(
+            @Value("${shareit.jdbc.max-concurrency:${spring.datasource.hikari.maximum-pool-size:10}}") int maxConcurrency,
+            @Value("${shareit.jdbc.acquire-timeout:30s}") Duration acquireTimeout) {
+        return new BoundedDataSourcePostProcessor(maxConcurrency, acquireTimeout);
+    }
+
+    /**
+     * Executors.newVirtualThreadPerTaskExecutor() через reflection: сборка остаётся совместимой с Java 11.
+     */
+    static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Виртуальные потоки недоступны в JDK " + Runtime.version()
+                    + ", профиль virtual-threads требует JDK 21+", e);
+        }
+    }
+
+    /**
+     * Ограничивает только DataSource, которым пользуется приложение: единственный или помеченный @Primary.
+     * Пулы, в которые он делегирует (primary и replica профиля replica), не оборачиваются,
+     * иначе одно соединение занимало бы разрешения двух семафоров.
+     */
+    static class BoundedDataSourcePostProcessor implements BeanPostProcessor, BeanFactoryAware {
+        private final int maxConcurrency;
+        private final Duration acquireTimeout;
+        private ConfigurableListableBeanFactory beanFactory;
+
+        BoundedDataSourcePostProcessor(int maxConcurrency, Duration acquireTimeout) {
+            this.maxConcurrency = maxConcurrency;
+            this.acquireTimeout = acquireTimeout;
+        }
+
+        @Override
+        public void setBeanFactory(BeanFactory beanFactory) {
+            this.beanFactory = (ConfigurableListableBeanFactory) beanFactory;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof DataSource && !(bean instanceof BoundedDataSource) && isApplicationDataSource(beanName)) {
+                log.info("Обращения к БД через {} ограничены {} одновременными соединениями", beanName, maxConcurrency);
+                return new BoundedDataSource((DataSource) bean, maxConcurrency, acquireTimeout);
+            }
+            return bean;
+        }
+
+        private boolean isApplicationDataSource(String beanName) {
+            if (beanFactory.getBeanNamesForType(DataSource.class, true, false).length == 1) {
+                return true;
+            }
+            return beanFactory.containsBeanDefinition(beanName) && beanFactory.getBeanDefinition(beanName).isPrimary();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package ru.practicum.shareitserver.common.model;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Slice;
+import ru.practicum.shareitserver.common.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Непрозрачный курсор постраничной выдачи по ключу (keyset pagination):
+ * start — дата начала последнего бронирования на странице (для вещей и запросов не используется);
+ * id — id последнего элемента на странице.
+ * Клиент получает курсор в заголовке X-Next-Cursor и передаёт его без изменений в параметре cursor.
+ * Курсор одной выдачи в другой ({@link Kind} не совпадает) отклоняется как некорректный.
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class Cursor {
+    private static final String SEPARATOR = "_";
+
+    private final LocalDateTime start;
+    private final long id;
+
+    /**
+     * Ключ выдачи: START_AND_ID — бронирования (дата начала и id), ID — вещи и запросы (только id).
+     */
+    public enum Kind {
+        START_AND_ID,
+        ID
+    }
+
+    public static Cursor of(long id) {
+        return new Cursor(null, id);
+    }
+
+    public static Cursor of(LocalDateTime start, long id) {
+        return new Cursor(start, id);
+    }
+
+    /**
+     * Пустая строка означает первую страницу, для неё возвращается null.
+     */
+    public static Cursor decode(String value, Kind kind) {
+        if (value.isBlank()) {
+            return null;
+        }
+        Cursor cursor;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            int i = raw.indexOf(SEPARATOR);
+            if (i < 0) {
+                cursor = of(Long.parseLong(raw));
+            } else {
+                cursor = of(LocalDateTime.parse(raw.substring(0, i)), Long.parseLong(raw.substring(i + 1)));
+            }
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException("Некорректный курсор: " + value);
+        }
+        if (cursor.getKind() != kind) {
+            throw new BadRequestException("Курсор " + value + " получен не для этой выдачи");
+        }
+        return cursor;
+    }
+
+    public Kind getKind() {
+        return start == null ? Kind.ID : Kind.START_AND_ID;
+    }
+
+    /**
+     * Курсор на следующую страницу или null, если страница последняя.
+     */
+    public static <T> String next(Slice<T> slice, Function<T, Cursor> cursorOf) {
+        if (!slice.hasNext()) {
+            return null;
+        }
+        List<T> content = slice.getContent();
+        return cursorOf.apply(content.get(content.size() - 1)).encode();
+    }
+
+    public String encode() {
+        String raw = start == null ? String.valueOf(id) : start + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
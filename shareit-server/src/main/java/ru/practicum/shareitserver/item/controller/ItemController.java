@@ -2,9 +2,16 @@ package ru.practicum.shareitserver.item.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Slice;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareitserver.booking.mapper.BookingMapper;
+import ru.practicum.shareitserver.booking.model.ItemBookings;
+import ru.practicum.shareitserver.booking.model.dto.AvailabilitySlotDto;
 import ru.practicum.shareitserver.booking.model.entity.Booking;
 import ru.practicum.shareitserver.booking.service.BookingService;
+import ru.practicum.shareitserver.common.model.Cursor;
 import ru.practicum.shareitserver.item.mapper.CommentMapper;
 import ru.practicum.shareitserver.item.mapper.ItemMapper;
 import ru.practicum.shareitserver.item.model.dto.CommentDto;
@@ -14,11 +21,14 @@ import ru.practicum.shareitserver.item.model.entity.Comment;
 import ru.practicum.shareitserver.item.model.entity.Item;
 import ru.practicum.shareitserver.item.service.ItemService;
 
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
+import static ru.practicum.shareitserver.common.Constants.X_NEXT_CURSOR;
 import static ru.practicum.shareitserver.common.Constants.X_SHARER_USER_ID;
 
 @Slf4j
@@ -30,15 +40,21 @@ public class ItemController {
     private final BookingService bookingService;
 
     @GetMapping
-    public List<ItemFullDto> getItems(@RequestHeader(X_SHARER_USER_ID) long userId,
-                                      @RequestParam(defaultValue = "0") Integer from,
-                                      @RequestParam(defaultValue = "20") Integer size) {
-        log.info("Получение списка вещей владельца с userId={}, from={}, size={}", userId, from, size);
-        List<Item> itemList = itemService.getItemsByUserId(userId, from, size);
-        return itemList.stream()
-                .map(item -> getItemWithBookDto(userId, item))
-                .sorted(Comparator.comparing(ItemFullDto::getId))
-                .collect(Collectors.toList());
+    public ResponseEntity<List<ItemFullDto>> getItems(@RequestHeader(X_SHARER_USER_ID) long userId,
+                                                      @RequestParam(defaultValue = "0") Integer from,
+                                                      @RequestParam(defaultValue = "20") Integer size,
+                                                      @RequestParam(required = false) String cursor) {
+        log.info("Получение списка вещей владельца с userId={}, from={}, size={}, cursor={}", userId, from, size, cursor);
+        List<Item> itemList;
+        String next = null;
+        if (cursor != null) {
+            Slice<Item> slice = itemService.getItemsByUserId(userId, Cursor.decode(cursor, Cursor.Kind.ID), size);
+            itemList = slice.getContent();
+            next = Cursor.next(slice, item -> Cursor.of(item.getId()));
+        } else {
+            itemList = itemService.getItemsByUserId(userId, from, size);
+        }
+        return withNextCursor(next).body(getItemsWithBookDto(itemList));
     }
 
     @GetMapping("/{itemId}")
@@ -69,16 +85,38 @@ public class ItemController {
     }
 
     @GetMapping("/search")
-    public List<ItemDto> getItemsByText(@RequestHeader(X_SHARER_USER_ID) Long userId,
-                                        @RequestParam String text,
-                                        @RequestParam(defaultValue = "0") Integer from,
-                                        @RequestParam(defaultValue = "20") Integer size) {
-        log.info("Поиск вещей с текстом={} пользователем с userId={}, from={}, size={}", text, userId, from, size);
+    public ResponseEntity<List<ItemDto>> getItemsByText(@RequestHeader(X_SHARER_USER_ID) Long userId,
+                                                        @RequestParam String text,
+                                                        @RequestParam(required = false)
+                                                        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                                        @RequestParam(required = false)
+                                                        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+                                                        @RequestParam(defaultValue = "0") Integer from,
+                                                        @RequestParam(defaultValue = "20") Integer size,
+                                                        @RequestParam(required = false) String cursor) {
+        log.info("Поиск вещей с текстом={}, свободных с {} по {}, пользователем с userId={}, from={}, size={}, cursor={}",
+                text, start, end, userId, from, size, cursor);
         if (text.isBlank()) {
-            return Collections.emptyList();
+            return ResponseEntity.ok(Collections.emptyList());
         }
-        List<Item> itemList = itemService.getItemsByText(userId, text, from, size);
-        return ItemMapper.toItemDtoList(itemList);
+        if (cursor != null) {
+            Slice<Item> slice = itemService.getItemsByText(userId, text, start, end, Cursor.decode(cursor, Cursor.Kind.ID), size);
+            String next = Cursor.next(slice, item -> Cursor.of(item.getId()));
+            return withNextCursor(next).body(ItemMapper.toItemDtoList(slice.getContent()));
+        }
+        List<Item> itemList = itemService.getItemsByText(userId, text, start, end, from, size);
+        return ResponseEntity.ok(ItemMapper.toItemDtoList(itemList));
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public List<AvailabilitySlotDto> getItemAvailability(@RequestHeader(X_SHARER_USER_ID) long userId,
+                                                         @PathVariable long itemId,
+                                                         @RequestParam(required = false)
+                                                         @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                         @RequestParam(required = false)
+                                                         @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("Получение календаря вещи с itemId={} пользователем с userId={} с {} по {}", itemId, userId, from, to);
+        return BookingMapper.toAvailabilitySlotDtoList(bookingService.getItemAvailability(userId, itemId, from, to));
     }
 
     @PostMapping("/{itemId}/comment")
@@ -91,6 +129,32 @@ public class ItemController {
         return CommentMapper.toCommentDto(comment);
     }
 
+    private ResponseEntity.BodyBuilder withNextCursor(String next) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (next != null) {
+            response.header(X_NEXT_CURSOR, next);
+        }
+        return response;
+    }
+
+    /**
+     * Бронирования и отзывы для всей страницы вещей владельца загружаются двумя запросами, а не тремя на каждую вещь.
+     */
+    private List<ItemFullDto> getItemsWithBookDto(List<Item> itemList) {
+        List<Long> itemIds = itemList.stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+        ItemBookings bookings = bookingService.getBookingsByItemIds(itemIds);
+        Map<Long, List<Comment>> comments = itemService.getCommentsByItemIds(itemIds);
+        return itemList.stream()
+                .map(item -> ItemMapper.toItemFullDto(item,
+                        bookings.getLastBooking(item.getId()),
+                        bookings.getNextBooking(item.getId()),
+                        comments.getOrDefault(item.getId(), List.of())))
+                .sorted(Comparator.comparing(ItemFullDto::getId))
+                .collect(Collectors.toList());
+    }
+
     private ItemFullDto getItemWithBookDto(long userId, Item item) {
         Booking lastBooking = bookingService.getLastBookingByItemId(userId, item);
         Booking nextBooking = bookingService.getNextBookingByItemId(userId, item);
@@ -0,0 +1,84 @@
+package ru.practicum.shareitserver.item.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareitserver.item.model.entity.Item;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Полнотекстовый поиск PostgreSQL: совпадение по словам (search_vector, GIN) или по подстроке (pg_trgm, GIN).
+ * Ранжирование — ts_rank плюс триграммная близость названия; limit/offset выполняются в БД.
+ */
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.item-search.engine", havingValue = "full-text", matchIfMissing = true)
+public class FullTextItemSearchRepository implements ItemSearchRepository {
+    private static final String FROM = "from items as i, " +
+            "(select plainto_tsquery('russian', :text) || plainto_tsquery('english', :text) as query) as q ";
+    private static final String SEARCH = "select i.id, i.name, i.description, i.is_available, i.owner_id, i.request_id " +
+            FROM +
+            "where i.is_available " +
+            "and (i.search_vector @@ q.query or i.name ilike :pattern or i.description ilike :pattern) ";
+    private static final String FREE_IN_PERIOD = "and not exists (select 1 from bookings as b where b.item_id = i.id " +
+            "and b.status = 'APPROVED' and b.start_date < :end and b.end_date > :start) ";
+    private static final String RANK = "ts_rank(i.search_vector, q.query) + similarity(i.name, :text)";
+    /**
+     * Ранг вещи-курсора передаётся обратно как real, в котором он и вычислен, поэтому равенство рангов точное.
+     */
+    private static final String AFTER = "and (" + RANK + " < cast(:afterRank as real) " +
+            "or (" + RANK + " = cast(:afterRank as real) and i.id > :afterId)) ";
+    private static final String ORDER = "order by " + RANK + " desc, i.id ";
+    private static final String RANK_OF = "select " + RANK + " " + FROM + "where i.id = :afterId";
+
+    private final EntityManager em;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Item> search(String text, LocalDateTime start, LocalDateTime end, Pageable pageable) {
+        return query(text, start, end, "", "limit :limit offset :offset")
+                .setParameter("limit", pageable.getPageSize())
+                .setParameter("offset", pageable.getOffset())
+                .getResultList();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Slice<Item> searchAfter(String text, LocalDateTime start, LocalDateTime end, Long afterId, int size) {
+        Query query;
+        if (afterId == null) {
+            query = query(text, start, end, "", "limit :limit");
+        } else {
+            Optional<Number> afterRank = em.createNativeQuery(RANK_OF)
+                    .setParameter("text", text)
+                    .setParameter("afterId", afterId)
+                    .getResultStream()
+                    .findFirst();
+            if (afterRank.isEmpty()) {
+                return ItemSearchRepository.slice(List.of(), size);
+            }
+            query = query(text, start, end, AFTER, "limit :limit")
+                    .setParameter("afterRank", afterRank.get().floatValue())
+                    .setParameter("afterId", afterId);
+        }
+        return ItemSearchRepository.slice(query.setParameter("limit", size + 1).getResultList(), size);
+    }
+
+    private Query query(String text, LocalDateTime start, LocalDateTime end, String after, String page) {
+        boolean inPeriod = start != null && end != null;
+        Query query = em.createNativeQuery(SEARCH + (inPeriod ? FREE_IN_PERIOD : "") + after + ORDER + page, Item.class);
+        if (inPeriod) {
+            query.setParameter("start", start).setParameter("end", end);
+        }
+        return query
+                .setParameter("text", text)
+                .setParameter("pattern", ItemSearchRepository.likePattern(text));
+    }
+}
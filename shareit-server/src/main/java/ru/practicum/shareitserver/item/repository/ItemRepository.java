@@ -1,25 +1,65 @@
 package ru.practicum.shareitserver.item.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import ru.practicum.shareitserver.item.model.entity.Item;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
+    /**
+     * Условие «нет подтверждённого бронирования, пересекающего [start, end)»: анти-соединение по индексу
+     * bookings (item_id, start_date, end_date).
+     */
+    String FREE_IN_PERIOD = "and not exists (select b.id from Booking b where b.item = it " +
+            "and b.status = ru.practicum.shareitserver.booking.Status.APPROVED " +
+            "and b.start < :end and b.end > :start) ";
+
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHEABLE, value = "true"))
     List<Item> findItemsByOwnerId(long userId);
 
-    Page<Item> findItemsByOwnerId(long userId, Pageable pageable);
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select it from Item it where it.id = :id")
+    Optional<Item> findByIdForUpdate(@Param("id") long id);
+
+    /**
+     * Блокировка вещей в порядке id, чтобы параллельные пакетные бронирования не блокировали друг друга по кругу.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select it from Item it where it.id in :ids order by it.id")
+    List<Item> findAllByIdInForUpdate(@Param("ids") Collection<Long> ids);
+
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHEABLE, value = "true"))
+    Slice<Item> findItemsByOwnerId(long userId, Pageable pageable);
 
-    @Query("select it " +
-            "from Item as it " +
-            "where it.available = true " +
-            "and (lower(it.name) like lower(concat('%', :text, '%')) " +
-            "or lower(it.description) like lower(concat('%', :text, '%')))")
-    Page<Item> getItemsByText(@Param("text") String text, Pageable pageable);
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHEABLE, value = "true"))
+    Slice<Item> findItemsByOwnerIdAndIdGreaterThanOrderByIdAsc(long userId, long id, Pageable pageable);
 
+    /**
+     * id вещей из ids, свободных в [start, end).
+     */
+    @Query("select it.id from Item it where it.id in :ids " + FREE_IN_PERIOD)
+    List<Long> findFreeIdsIn(@Param("ids") Collection<Long> ids,
+                             @Param("start") LocalDateTime start,
+                             @Param("end") LocalDateTime end);
+
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHEABLE, value = "true"))
     List<Item> findItemsByRequestId(long requestId);
+
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHEABLE, value = "true"))
+    List<Item> findItemsByRequestIdIn(Collection<Long> requestIds);
+
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<Item> streamAllByAvailableTrue();
 }
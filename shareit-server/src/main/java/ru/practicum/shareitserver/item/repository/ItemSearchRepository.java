@@ -0,0 +1,57 @@
+package ru.practicum.shareitserver.item.repository;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import ru.practicum.shareitserver.item.model.entity.Item;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Поиск доступных вещей по тексту в названии и описании, от более релевантных к менее релевантным.
+ * Реализация выбирается свойством shareit.item-search.engine.
+ */
+public interface ItemSearchRepository {
+    default List<Item> search(String text, Pageable pageable) {
+        return search(text, null, null, pageable);
+    }
+
+    /**
+     * Если start и end заданы, исключаются вещи с подтверждённым бронированием, пересекающим [start, end).
+     */
+    List<Item> search(String text, LocalDateTime start, LocalDateTime end, Pageable pageable);
+
+    /**
+     * Страница той же выдачи, что и search, по ключу (ранг, id): size вещей после вещи afterId
+     * или первая страница, если afterId == null.
+     * Ранг вещи afterId вычисляется заново по её текущим названию и описанию, поэтому курсор хранит только id;
+     * если вещь afterId удалена, страница пустая.
+     */
+    Slice<Item> searchAfter(String text, LocalDateTime start, LocalDateTime end, Long afterId, int size);
+
+    /**
+     * Вызывается после сохранения вещи; нужен реализациям с собственным индексом.
+     */
+    default void onItemSaved(Item item) {
+    }
+
+    /**
+     * Срез по первым size вещам из items, выбранных с запасом в одну вещь для признака следующей страницы.
+     */
+    static Slice<Item> slice(List<Item> items, int size) {
+        boolean hasNext = items.size() > size;
+        return new SliceImpl<>(hasNext ? items.subList(0, size) : items, PageRequest.of(0, size), hasNext);
+    }
+
+    /**
+     * Экранирование спецсимволов LIKE, чтобы '%' и '_' в тексте искались буквально.
+     */
+    static String likePattern(String text) {
+        String escaped = text.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+}
@@ -0,0 +1,271 @@
+package ru.practicum.shareitserver.item.repository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Инвертированный триграммный индекс по названию и описанию доступных вещей.
+ * Для каждой триграммы хранится отсортированный массив id вещей (posting list).
+ * Поиск пересекает posting lists триграмм запроса, начиная с самого короткого,
+ * и проверяет вхождение подстроки только у оставшихся кандидатов.
+ * Запросы короче триграммы проверяются по всем вещам индекса.
+ * Одиночные изменения копируют posting list со вставкой (copy-on-write),
+ * полное построение идёт через {@link Builder}: id копятся в растущих буферах и сортируются один раз.
+ */
+public class ItemTextIndex {
+    private static final int GRAM = 3;
+    private static final long[] EMPTY = new long[0];
+
+    private final Map<Long, Document> documents;
+    private final Map<String, long[]> postings;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public ItemTextIndex() {
+        this(new HashMap<>(), new HashMap<>());
+    }
+
+    private ItemTextIndex(Map<Long, Document> documents, Map<String, long[]> postings) {
+        this.documents = documents;
+        this.postings = postings;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Добавление или замена вещи в индексе.
+     */
+    public void put(long id, String name, String description) {
+        Document document = new Document(lower(name), lower(description));
+        lock.writeLock().lock();
+        try {
+            removeUnderLock(id);
+            documents.put(id, document);
+            for (String gram : document.grams()) {
+                postings.merge(gram, new long[]{id}, ItemTextIndex::insert);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeUnderLock(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * id вещей, содержащих text в названии или описании: сначала совпадения в названии, затем по возрастанию id.
+     */
+    public List<Long> search(String text) {
+        return searchAfter(text, true, Long.MIN_VALUE);
+    }
+
+    /**
+     * Продолжение выдачи {@link #search} по ключу (ранг, id) после вещи afterId,
+     * совпавшей по названию (afterByName) или только по описанию.
+     */
+    public List<Long> searchAfter(String text, boolean afterByName, long afterId) {
+        String query = lower(text);
+        lock.readLock().lock();
+        try {
+            List<Long> byName = new ArrayList<>();
+            List<Long> byDescription = new ArrayList<>();
+            for (long id : candidates(query)) {
+                Document document = documents.get(id);
+                if (document.name.contains(query)) {
+                    if (afterByName && id > afterId) {
+                        byName.add(id);
+                    }
+                } else if (document.description.contains(query)) {
+                    if (afterByName || id > afterId) {
+                        byDescription.add(id);
+                    }
+                }
+            }
+            byName.addAll(byDescription);
+            return byName;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Совпадение text в названии по тем же правилам, что и при поиске.
+     */
+    public static boolean nameContains(String name, String text) {
+        return lower(name).contains(lower(text));
+    }
+
+    private long[] candidates(String query) {
+        if (query.length() < GRAM) {
+            return documents.keySet().stream()
+                    .mapToLong(Long::longValue)
+                    .sorted()
+                    .toArray();
+        }
+        List<long[]> lists = new ArrayList<>();
+        for (String gram : grams(query)) {
+            long[] ids = postings.get(gram);
+            if (ids == null) {
+                return EMPTY;
+            }
+            lists.add(ids);
+        }
+        lists.sort(Comparator.comparingInt(ids -> ids.length));
+        long[] result = lists.get(0);
+        for (int i = 1; i < lists.size() && result.length > 0; i++) {
+            result = intersect(result, lists.get(i));
+        }
+        return result;
+    }
+
+    private void removeUnderLock(long id) {
+        Document old = documents.remove(id);
+        if (old == null) {
+            return;
+        }
+        for (String gram : old.grams()) {
+            long[] ids = postings.get(gram);
+            int i = Arrays.binarySearch(ids, id);
+            if (ids.length == 1) {
+                postings.remove(gram);
+            } else if (i >= 0) {
+                long[] rest = new long[ids.length - 1];
+                System.arraycopy(ids, 0, rest, 0, i);
+                System.arraycopy(ids, i + 1, rest, i, ids.length - i - 1);
+                postings.put(gram, rest);
+            }
+        }
+    }
+
+    private static long[] insert(long[] ids, long[] single) {
+        long id = single[0];
+        int i = Arrays.binarySearch(ids, id);
+        if (i >= 0) {
+            return ids;
+        }
+        int at = -i - 1;
+        long[] result = new long[ids.length + 1];
+        System.arraycopy(ids, 0, result, 0, at);
+        result[at] = id;
+        System.arraycopy(ids, at, result, at + 1, ids.length - at);
+        return result;
+    }
+
+    private static long[] intersect(long[] a, long[] b) {
+        long[] result = new long[Math.min(a.length, b.length)];
+        int i = 0;
+        int j = 0;
+        int n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                result[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, n);
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private static String lower(String text) {
+        return text == null ? "" : text.toLowerCase();
+    }
+
+    /**
+     * Построение индекса целиком: каждая вещь добавляется один раз,
+     * posting list триграммы собирается в буфер и сортируется в {@link #build()}.
+     */
+    public static class Builder {
+        private final Map<Long, Document> documents = new HashMap<>();
+        private final Map<String, IdBuffer> postings = new HashMap<>();
+
+        private Builder() {
+        }
+
+        public Builder put(long id, String name, String description) {
+            Document document = new Document(lower(name), lower(description));
+            if (documents.putIfAbsent(id, document) != null) {
+                throw new IllegalArgumentException("Вещь с id " + id + " уже добавлена в индекс");
+            }
+            for (String gram : document.grams()) {
+                postings.computeIfAbsent(gram, key -> new IdBuffer()).add(id);
+            }
+            return this;
+        }
+
+        public ItemTextIndex build() {
+            Map<String, long[]> sorted = new HashMap<>(postings.size() * 4 / 3 + 1);
+            postings.forEach((gram, buffer) -> sorted.put(gram, buffer.toSortedArray()));
+            return new ItemTextIndex(new HashMap<>(documents), sorted);
+        }
+    }
+
+    private static class IdBuffer {
+        private long[] ids = new long[4];
+        private int size;
+
+        private void add(long id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        private long[] toSortedArray() {
+            long[] result = Arrays.copyOf(ids, size);
+            Arrays.sort(result);
+            return result;
+        }
+    }
+
+    private static class Document {
+        private final String name;
+        private final String description;
+
+        private Document(String name, String description) {
+            this.name = name;
+            this.description = description;
+        }
+
+        private Set<String> grams() {
+            Set<String> grams = ItemTextIndex.grams(name);
+            grams.addAll(ItemTextIndex.grams(description));
+            return grams;
+        }
+    }
+}
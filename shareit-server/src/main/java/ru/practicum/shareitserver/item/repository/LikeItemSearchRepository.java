@@ -0,0 +1,77 @@
+package ru.practicum.shareitserver.item.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareitserver.item.model.entity.Item;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Поиск по подстроке для БД без полнотекстового поиска (H2 в профилях ci и test).
+ * Совпадения в названии выдаются раньше совпадений только в описании.
+ */
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.item-search.engine", havingValue = "like")
+public class LikeItemSearchRepository implements ItemSearchRepository {
+    private static final String SEARCH = "select it " +
+            "from Item as it " +
+            "where it.available = true " +
+            "and (lower(it.name) like :pattern escape '\\' " +
+            "or lower(it.description) like :pattern escape '\\') ";
+    /**
+     * Ранг вещи: 0 — совпадение в названии, 1 — только в описании.
+     */
+    private static final String RANK = "case when lower(it.name) like :pattern escape '\\' then 0 else 1 end";
+    private static final String AFTER = "and (" + RANK + " > :afterRank or (" + RANK + " = :afterRank and it.id > :afterId)) ";
+    private static final String ORDER = "order by " + RANK + ", it.id";
+    private static final String RANK_OF = "select " + RANK + " from Item as it where it.id = :afterId";
+
+    private final EntityManager em;
+
+    @Override
+    public List<Item> search(String text, LocalDateTime start, LocalDateTime end, Pageable pageable) {
+        return query(text, start, end, "")
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+    }
+
+    @Override
+    public Slice<Item> searchAfter(String text, LocalDateTime start, LocalDateTime end, Long afterId, int size) {
+        TypedQuery<Item> query;
+        if (afterId == null) {
+            query = query(text, start, end, "");
+        } else {
+            Optional<Integer> afterRank = em.createQuery(RANK_OF, Integer.class)
+                    .setParameter("pattern", ItemSearchRepository.likePattern(text.toLowerCase()))
+                    .setParameter("afterId", afterId)
+                    .getResultStream()
+                    .findFirst();
+            if (afterRank.isEmpty()) {
+                return ItemSearchRepository.slice(List.of(), size);
+            }
+            query = query(text, start, end, AFTER)
+                    .setParameter("afterRank", afterRank.get())
+                    .setParameter("afterId", afterId);
+        }
+        return ItemSearchRepository.slice(query.setMaxResults(size + 1).getResultList(), size);
+    }
+
+    private TypedQuery<Item> query(String text, LocalDateTime start, LocalDateTime end, String after) {
+        boolean inPeriod = start != null && end != null;
+        TypedQuery<Item> query = em.createQuery(SEARCH + (inPeriod ? ItemRepository.FREE_IN_PERIOD : "") + after + ORDER, Item.class)
+                .setParameter("pattern", ItemSearchRepository.likePattern(text.toLowerCase()));
+        if (inPeriod) {
+            query.setParameter("start", start).setParameter("end", end);
+        }
+        return query;
+    }
+}
@@ -0,0 +1,195 @@
+package ru.practicum.shareitserver.item.repository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareitserver.item.model.entity.Item;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Поиск вещей в памяти по {@link ItemTextIndex} без обращения к БД; из БД загружается только итоговая страница.
+ * Индекс строится заново потоковым чтением доступных вещей при старте приложения и подменяет прежний,
+ * а при сохранении вещи обновляется после фиксации транзакции.
+ * Обновления, пришедшие во время перестроения, применяются к обоим индексам: к текущему сразу,
+ * к новому — перед подменой, поэтому ни одно из них не теряется.
+ * Пока индекс не построен впервые, поиск выполняется через {@link LikeItemSearchRepository}.
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.item-search.engine", havingValue = "memory")
+public class MemoryItemSearchRepository implements ItemSearchRepository {
+    private static final int FREE_CHECK_CHUNK = 500;
+
+    private final Object updateLock = new Object();
+    private final ItemRepository itemRepository;
+    private final EntityManager em;
+    /**
+     * null, пока индекс не построен впервые.
+     */
+    private volatile ItemTextIndex index;
+    /**
+     * Обновления, пришедшие во время перестроения, для повтора на новом индексе; null вне перестроения.
+     */
+    private List<Consumer<ItemTextIndex>> pendingUpdates;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        log.info("Построение индекса поиска вещей");
+        synchronized (updateLock) {
+            pendingUpdates = new ArrayList<>();
+        }
+        ItemTextIndex built;
+        try (Stream<Item> items = itemRepository.streamAllByAvailableTrue()) {
+            ItemTextIndex.Builder builder = ItemTextIndex.builder();
+            items.forEach(item -> {
+                builder.put(item.getId(), item.getName(), item.getDescription());
+                em.detach(item);
+            });
+            built = builder.build();
+        } catch (RuntimeException e) {
+            synchronized (updateLock) {
+                pendingUpdates = null;
+            }
+            throw e;
+        }
+        synchronized (updateLock) {
+            pendingUpdates.forEach(update -> update.accept(built));
+            log.info("Индекс поиска вещей построен, вещей: {}, обновлений во время построения: {}",
+                    built.size(), pendingUpdates.size());
+            pendingUpdates = null;
+            index = built;
+        }
+    }
+
+    @Override
+    public List<Item> search(String text, LocalDateTime start, LocalDateTime end, Pageable pageable) {
+        ItemTextIndex current = index;
+        if (current == null) {
+            log.debug("Индекс поиска вещей ещё не построен, поиск по подстроке");
+            return new LikeItemSearchRepository(em).search(text, start, end, pageable);
+        }
+        List<Long> ids = current.search(text);
+        if (start != null && end != null) {
+            ids = freeIds(ids, start, end, pageable.getOffset() + pageable.getPageSize());
+        }
+        return load(ids.stream()
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .collect(Collectors.toList()));
+    }
+
+    @Override
+    public Slice<Item> searchAfter(String text, LocalDateTime start, LocalDateTime end, Long afterId, int size) {
+        ItemTextIndex current = index;
+        if (current == null) {
+            log.debug("Индекс поиска вещей ещё не построен, поиск по подстроке");
+            return new LikeItemSearchRepository(em).searchAfter(text, start, end, afterId, size);
+        }
+        List<Long> ids;
+        if (afterId == null) {
+            ids = current.search(text);
+        } else {
+            Optional<Item> after = itemRepository.findById(afterId);
+            if (after.isEmpty()) {
+                return ItemSearchRepository.slice(List.of(), size);
+            }
+            ids = current.searchAfter(text, ItemTextIndex.nameContains(after.get().getName(), text), afterId);
+        }
+        if (start != null && end != null) {
+            ids = freeIds(ids, start, end, size + 1);
+        }
+        return ItemSearchRepository.slice(load(ids.subList(0, Math.min(ids.size(), size + 1))), size);
+    }
+
+    /**
+     * Вещи по id из БД в порядке ids; вещи, удалённые после поиска по индексу, пропускаются.
+     */
+    private List<Item> load(List<Long> ids) {
+        Map<Long, Item> items = itemRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        return ids.stream()
+                .map(items::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Первые limit id из ids (в порядке ранжирования), свободных в [start, end).
+     * Занятость проверяется в БД порциями по индексу bookings (item_id, start_date, end_date).
+     */
+    private List<Long> freeIds(List<Long> ids, LocalDateTime start, LocalDateTime end, long limit) {
+        List<Long> free = new ArrayList<>();
+        for (int from = 0; from < ids.size() && free.size() < limit; from += FREE_CHECK_CHUNK) {
+            List<Long> chunk = ids.subList(from, Math.min(from + FREE_CHECK_CHUNK, ids.size()));
+            Set<Long> freeInChunk = new HashSet<>(itemRepository.findFreeIdsIn(chunk, start, end));
+            chunk.stream()
+                    .filter(freeInChunk::contains)
+                    .forEach(free::add);
+        }
+        return free;
+    }
+
+    @Override
+    public void onItemSaved(Item item) {
+        long id = item.getId();
+        String name = item.getName();
+        String description = item.getDescription();
+        boolean available = Boolean.TRUE.equals(item.getAvailable());
+        Consumer<ItemTextIndex> update = target -> {
+            if (available) {
+                target.put(id, name, description);
+            } else {
+                target.remove(id);
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(update);
+                }
+            });
+        } else {
+            apply(update);
+        }
+    }
+
+    /**
+     * Обновление текущего индекса и, если идёт перестроение, запоминание обновления для нового.
+     * До первого построения текущего индекса нет: вещь попадёт в него при чтении из БД или повтором.
+     */
+    private void apply(Consumer<ItemTextIndex> update) {
+        synchronized (updateLock) {
+            ItemTextIndex current = index;
+            if (current != null) {
+                update.accept(current);
+            }
+            if (pendingUpdates != null) {
+                pendingUpdates.add(update);
+            }
+        }
+    }
+}
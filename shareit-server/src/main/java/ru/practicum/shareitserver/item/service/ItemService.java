@@ -1,26 +1,60 @@
 package ru.practicum.shareitserver.item.service;
 
+import org.springframework.data.domain.Slice;
+import ru.practicum.shareitserver.common.model.Cursor;
 import ru.practicum.shareitserver.item.model.entity.Comment;
 import ru.practicum.shareitserver.item.model.entity.Item;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface ItemService {
     List<Item> getItemsByUserId(long userId);
 
     List<Item> getItemsByUserId(long userId, Integer from, Integer size);
 
+    Slice<Item> getItemsByUserId(long userId, Cursor cursor, Integer size);
+
     Item getItemId(long userId, long itemId);
 
+    /**
+     * Вещь с блокировкой строки до конца транзакции: бронирования одной вещи создаются по очереди.
+     */
+    Item getItemForBooking(long userId, long itemId);
+
+    /**
+     * Вещи для пакетного бронирования одним запросом с блокировкой; отсутствие любой из вещей — ошибка.
+     */
+    List<Item> getItemsForBooking(long userId, Collection<Long> itemIds);
+
     Item addItem(long userId, Item item, Long requestId);
 
     Item updateItem(long userId, long itemId, Item item, Long requestId);
 
-    List<Item> getItemsByText(long userId, String text, Integer from, Integer size);
+    /**
+     * Если start и end заданы, в выдачу попадают только вещи без подтверждённых бронирований на [start, end).
+     */
+    List<Item> getItemsByText(long userId, String text, LocalDateTime start, LocalDateTime end,
+                              Integer from, Integer size);
+
+    Slice<Item> getItemsByText(long userId, String text, LocalDateTime start, LocalDateTime end,
+                               Cursor cursor, Integer size);
 
     Comment addComment(long userId, long itemId, Comment comment);
 
     List<Comment> getCommentsByItemId(long itemId);
 
+    /**
+     * Отзывы о вещах вместе с авторами одним запросом, по id вещи.
+     */
+    Map<Long, List<Comment>> getCommentsByItemIds(Collection<Long> itemIds);
+
     List<Item> getItemsByRequestId(long requestId);
+
+    /**
+     * Вещи, созданные в ответ на запросы, одним запросом, по id запроса.
+     */
+    Map<Long, List<Item>> getItemsByRequestIds(Collection<Long> requestIds);
 }
@@ -1,25 +1,36 @@
 package ru.practicum.shareitserver.item.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareitserver.booking.repository.BookingRepository;
 import ru.practicum.shareitserver.common.exception.BadRequestException;
 import ru.practicum.shareitserver.common.exception.NotFoundException;
+import ru.practicum.shareitserver.common.model.Cursor;
 import ru.practicum.shareitserver.item.model.entity.Comment;
 import ru.practicum.shareitserver.item.model.entity.Item;
 import ru.practicum.shareitserver.item.repository.CommentRepository;
 import ru.practicum.shareitserver.item.repository.ItemRepository;
+import ru.practicum.shareitserver.item.repository.ItemSearchRepository;
 import ru.practicum.shareitserver.requests.service.ItemRequestService;
 import ru.practicum.shareitserver.user.service.UserService;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
+@Timed("shareit.service")
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class ItemServiceImpl implements ItemService {
@@ -28,6 +39,7 @@ public class ItemServiceImpl implements ItemService {
     private final CommentRepository commentRepository;
     private final UserService userService;
     private final ItemRequestService itemRequestService;
+    private final ItemSearchRepository itemSearchRepository;
 
     @Override
     public List<Item> getItemsByUserId(long userId) {
@@ -43,6 +55,15 @@ public class ItemServiceImpl implements ItemService {
         return itemRepository.findItemsByOwnerId(userId, pr).toList();
     }
 
+    @Override
+    public Slice<Item> getItemsByUserId(long userId, Cursor cursor, Integer size) {
+        log.debug("Получение списка вещей владельца с userId={} по курсору", userId);
+        if (cursor == null) {
+            return itemRepository.findItemsByOwnerId(userId, PageRequest.of(0, size, Sort.by("id")));
+        }
+        return itemRepository.findItemsByOwnerIdAndIdGreaterThanOrderByIdAsc(userId, cursor.getId(), PageRequest.of(0, size));
+    }
+
     @Override
     public Item getItemId(long userId, long itemId) {
         log.debug("Просмотр вещи с itemId={}", itemId);
@@ -50,17 +71,42 @@ public class ItemServiceImpl implements ItemService {
         return getItemById(itemId);
     }
 
+    @Override
+    @Transactional
+    public Item getItemForBooking(long userId, long itemId) {
+        log.debug("Блокировка вещи с itemId={} для бронирования", itemId);
+        userService.checkUser(userId);
+        return itemRepository.findByIdForUpdate(itemId).orElseThrow(
+                () -> new NotFoundException("Вещи с itemId=" + itemId + " не существует!")
+        );
+    }
+
+    @Override
+    @Transactional
+    public List<Item> getItemsForBooking(long userId, Collection<Long> itemIds) {
+        log.debug("Блокировка вещей с itemId={} для бронирования", itemIds);
+        userService.checkUser(userId);
+        List<Item> items = itemRepository.findAllByIdInForUpdate(itemIds);
+        if (items.size() < new HashSet<>(itemIds).size()) {
+            Set<Long> found = items.stream().map(Item::getId).collect(Collectors.toSet());
+            long missing = itemIds.stream().filter(id -> !found.contains(id)).findFirst().orElseThrow();
+            throw new NotFoundException("Вещи с itemId=" + missing + " не существует!");
+        }
+        return items;
+    }
+
     @Override
     @Transactional
     public Item addItem(long userId, Item item, Long requestId) {
         log.debug("Добавление вещи {} пользователем с userId={}, requestId={}", item, userId, requestId);
-        userService.checkUser(userId);
         item.setOwner(userService.getUserById(userId));
         if (requestId != null) {
             itemRequestService.checkItemRequest(requestId);
             item.setRequest(itemRequestService.getItemRequest(userId, requestId));
         }
-        return itemRepository.save(item);
+        item = itemRepository.save(item);
+        itemSearchRepository.onItemSaved(item);
+        return item;
     }
 
     @Override
@@ -85,16 +131,31 @@ public class ItemServiceImpl implements ItemService {
             itemRequestService.checkItemRequest(requestId);
             itemNew.setRequest(itemRequestService.getItemRequest(userId, requestId));
         }
-        return itemRepository.save(itemNew);
+        itemNew = itemRepository.save(itemNew);
+        itemSearchRepository.onItemSaved(itemNew);
+        return itemNew;
     }
 
     @Override
-    public List<Item> getItemsByText(long userId, String text, Integer from, Integer size) {
-        log.debug("Поиск вещей с текстом={} в названии и описании пользователем с userId={}", text, userId);
+    public List<Item> getItemsByText(long userId, String text, LocalDateTime start, LocalDateTime end,
+                                     Integer from, Integer size) {
+        log.debug("Поиск вещей с текстом={} в названии и описании, свободных с {} по {}, пользователем с userId={}",
+                text, start, end, userId);
         log.info("from={}, size={}", from, size);
         PageRequest pr = PageRequest.of(from / size, size);
         userService.checkUser(userId);
-        return itemRepository.getItemsByText(text, pr).toList();
+        checkPeriod(start, end);
+        return itemSearchRepository.search(text, start, end, pr);
+    }
+
+    @Override
+    public Slice<Item> getItemsByText(long userId, String text, LocalDateTime start, LocalDateTime end,
+                                      Cursor cursor, Integer size) {
+        log.debug("Поиск вещей с текстом={}, свободных с {} по {}, по курсору пользователем с userId={}",
+                text, start, end, userId);
+        userService.checkUser(userId);
+        checkPeriod(start, end);
+        return itemSearchRepository.searchAfter(text, start, end, cursor == null ? null : cursor.getId(), size);
     }
 
     @Override
@@ -116,16 +177,45 @@ public class ItemServiceImpl implements ItemService {
         return commentRepository.findAllByItemIdOrderByCreatedDesc(itemId);
     }
 
+    @Override
+    public Map<Long, List<Comment>> getCommentsByItemIds(Collection<Long> itemIds) {
+        log.debug("Получение отзывов о вещах с itemId={}", itemIds);
+        if (itemIds.isEmpty()) {
+            return Map.of();
+        }
+        return commentRepository.findAllByItemIdIn(itemIds).stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId()));
+    }
+
     @Override
     public List<Item> getItemsByRequestId(long requestId) {
         log.debug("Получение вещей по запросу requestId={}", requestId);
         return itemRepository.findItemsByRequestId(requestId);
     }
 
+    @Override
+    public Map<Long, List<Item>> getItemsByRequestIds(Collection<Long> requestIds) {
+        log.debug("Получение вещей по запросам с requestId={}", requestIds);
+        if (requestIds.isEmpty()) {
+            return Map.of();
+        }
+        return itemRepository.findItemsByRequestIdIn(requestIds).stream()
+                .collect(Collectors.groupingBy(item -> item.getRequest().getId()));
+    }
+
     private boolean isExistItemIdForUserId(long userId, long itemId) {
         return itemRepository.findItemsByOwnerId(userId).stream().noneMatch(i -> i.getId() == itemId);
     }
 
+    private void checkPeriod(LocalDateTime start, LocalDateTime end) {
+        if ((start == null) != (end == null)) {
+            throw new BadRequestException("Период поиска задаётся началом и концом одновременно!");
+        }
+        if (start != null && !start.isBefore(end)) {
+            throw new BadRequestException("Начало периода должно быть раньше конца!");
+        }
+    }
+
     private Item getItemById(long itemId) {
         return itemRepository.findById(itemId).orElseThrow(
                 () -> new NotFoundException("Вещи с itemId=" + itemId + " не существует!")
@@ -2,7 +2,10 @@ package ru.practicum.shareitserver.requests.contoller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareitserver.common.model.Cursor;
 import ru.practicum.shareitserver.item.model.entity.Item;
 import ru.practicum.shareitserver.item.service.ItemService;
 import ru.practicum.shareitserver.requests.mapper.ItemRequestMapper;
@@ -10,10 +13,11 @@ import ru.practicum.shareitserver.requests.model.dto.ItemRequestDto;
 import ru.practicum.shareitserver.requests.model.entity.ItemRequest;
 import ru.practicum.shareitserver.requests.service.ItemRequestService;
 
-import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
+import static ru.practicum.shareitserver.common.Constants.X_NEXT_CURSOR;
 import static ru.practicum.shareitserver.common.Constants.X_SHARER_USER_ID;
 
 /**
@@ -32,6 +36,8 @@ import static ru.practicum.shareitserver.common.Constants.X_SHARER_USER_ID;
  * Результаты должны возвращаться постранично.
  * Для этого нужно передать два параметра: from — индекс первого элемента, начиная с 0,
  * и size — количество элементов для отображения.
+ * Вместо from можно передать cursor (пустой — первая страница): запросы выдаются по возрастанию id,
+ * курсор на следующую страницу возвращается в заголовке X-Next-Cursor.
  * <p>
  * GET /requests/{requestId} — получить данные об одном конкретном запросе
  * вместе с данными об ответах на него в том же формате, что и в эндпоинте GET /requests.
@@ -58,28 +64,29 @@ public class ItemRequestController {
     public List<ItemRequestDto> getItemRequests(@RequestHeader(X_SHARER_USER_ID) long userId) {
         log.info("Получение списка запросов вместе с данными об ответах на них для владельца с userId={}", userId);
         List<ItemRequest> itemRequestList = itemRequestService.getItemRequestsByUserId(userId);
-        return itemRequestList.stream()
-                .map(itemRequest -> {
-                    List<Item> items = itemService.getItemsByRequestId(itemRequest.getId());
-                    return ItemRequestMapper.toItemRequestDto(itemRequest, items);
-                })
-                .sorted(Comparator.comparing(ItemRequestDto::getCreated))
-                .collect(Collectors.toList());
+        return toItemRequestDtoList(itemRequestList);
     }
 
     @GetMapping("/all")
-    public List<ItemRequestDto> getItemRequestsAll(@RequestHeader(X_SHARER_USER_ID) long userId,
-                                                   @RequestParam(defaultValue = "0") Integer from,
-                                                   @RequestParam(defaultValue = "20") Integer size) {
-        log.info("Получение списка запросов, созданных другими пользователями для userId={}, from={}, size={}", userId, from, size);
-        List<ItemRequest> itemRequestList = itemRequestService.getItemRequestsAll(userId, from, size);
-        return itemRequestList.stream()
-                .map(itemRequest -> {
-                    List<Item> items = itemService.getItemsByRequestId(itemRequest.getId());
-                    return ItemRequestMapper.toItemRequestDto(itemRequest, items);
-                })
-                .sorted(Comparator.comparing(ItemRequestDto::getCreated))
-                .collect(Collectors.toList());
+    public ResponseEntity<List<ItemRequestDto>> getItemRequestsAll(@RequestHeader(X_SHARER_USER_ID) long userId,
+                                                                   @RequestParam(defaultValue = "0") Integer from,
+                                                                   @RequestParam(defaultValue = "20") Integer size,
+                                                                   @RequestParam(required = false) String cursor) {
+        log.info("Получение списка запросов, созданных другими пользователями для userId={}, from={}, size={}, cursor={}",
+                userId, from, size, cursor);
+        List<ItemRequest> itemRequestList;
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (cursor != null) {
+            Slice<ItemRequest> slice = itemRequestService.getItemRequestsAll(userId, Cursor.decode(cursor, Cursor.Kind.ID), size);
+            itemRequestList = slice.getContent();
+            String next = Cursor.next(slice, itemRequest -> Cursor.of(itemRequest.getId()));
+            if (next != null) {
+                response.header(X_NEXT_CURSOR, next);
+            }
+        } else {
+            itemRequestList = itemRequestService.getItemRequestsAll(userId, from, size);
+        }
+        return response.body(toItemRequestDtoList(itemRequestList));
     }
 
     @GetMapping("/{requestId}")
@@ -91,4 +98,17 @@ public class ItemRequestController {
         ItemRequest itemRequest = itemRequestService.getItemRequest(userId, requestId);
         return ItemRequestMapper.toItemRequestDto(itemRequest, items);
     }
+
+    /**
+     * Ответы на все запросы загружаются одним запросом; порядок запросов задаёт сервис.
+     */
+    private List<ItemRequestDto> toItemRequestDtoList(List<ItemRequest> itemRequestList) {
+        Map<Long, List<Item>> items = itemService.getItemsByRequestIds(itemRequestList.stream()
+                .map(ItemRequest::getId)
+                .collect(Collectors.toList()));
+        return itemRequestList.stream()
+                .map(itemRequest -> ItemRequestMapper.toItemRequestDto(itemRequest,
+                        items.getOrDefault(itemRequest.getId(), List.of())))
+                .collect(Collectors.toList());
+    }
 }
@@ -2,15 +2,27 @@ package ru.practicum.shareitserver.requests.repository;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import ru.practicum.shareitserver.requests.model.entity.ItemRequest;
 
+import javax.persistence.QueryHint;
 import java.util.List;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
-    List<ItemRequest> findItemRequestByRequestorId(long userId);
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHEABLE, value = "true"))
+    @EntityGraph(attributePaths = "requestor")
+    List<ItemRequest> findItemRequestByRequestorIdOrderByCreatedAsc(long userId);
 
     Page<ItemRequest> findAll(Pageable pageable);
 
-    Page<ItemRequest> findAllByRequestorIdNot(long userId, Pageable pageable);
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHEABLE, value = "true"))
+    @EntityGraph(attributePaths = "requestor")
+    Slice<ItemRequest> findAllByRequestorIdNot(long userId, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHEABLE, value = "true"))
+    @EntityGraph(attributePaths = "requestor")
+    Slice<ItemRequest> findAllByRequestorIdNotAndIdGreaterThanOrderByIdAsc(long userId, long id, Pageable pageable);
 }
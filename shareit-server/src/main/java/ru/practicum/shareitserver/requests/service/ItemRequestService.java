@@ -1,5 +1,7 @@
 package ru.practicum.shareitserver.requests.service;
 
+import org.springframework.data.domain.Slice;
+import ru.practicum.shareitserver.common.model.Cursor;
 import ru.practicum.shareitserver.requests.model.entity.ItemRequest;
 
 import java.util.List;
@@ -11,6 +13,8 @@ public interface ItemRequestService {
 
     List<ItemRequest> getItemRequestsAll(long userId, Integer from, Integer size);
 
+    Slice<ItemRequest> getItemRequestsAll(long userId, Cursor cursor, Integer size);
+
     ItemRequest getItemRequest(long userId, long requestId);
 
     void checkItemRequest(long requestId);
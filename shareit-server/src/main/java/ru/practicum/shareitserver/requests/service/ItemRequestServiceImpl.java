@@ -1,11 +1,15 @@
 package ru.practicum.shareitserver.requests.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareitserver.common.exception.NotFoundException;
+import ru.practicum.shareitserver.common.model.Cursor;
 import ru.practicum.shareitserver.requests.model.entity.ItemRequest;
 import ru.practicum.shareitserver.requests.repository.ItemRequestRepository;
 import ru.practicum.shareitserver.user.service.UserService;
@@ -14,6 +18,7 @@ import java.util.List;
 
 @Slf4j
 @Service
+@Timed("shareit.service")
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class ItemRequestServiceImpl implements ItemRequestService {
@@ -33,7 +38,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     public List<ItemRequest> getItemRequestsByUserId(long userId) {
         log.debug("Получение списка запросов владельца с userId={}", userId);
         userService.checkUser(userId);
-        return itemRequestRepository.findItemRequestByRequestorId(userId);
+        return itemRequestRepository.findItemRequestByRequestorIdOrderByCreatedAsc(userId);
     }
 
     @Override
@@ -41,10 +46,20 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         log.debug("Получение списка всех не своих запросов для userId={}. Со страницы {} в количестве {}", userId, from, size);
         userService.checkUser(userId);
         log.info("from={}, size={}", from, size);
-        PageRequest pr = PageRequest.of(from / size, size);
+        PageRequest pr = PageRequest.of(from / size, size, Sort.by("created"));
         return itemRequestRepository.findAllByRequestorIdNot(userId, pr).toList();
     }
 
+    @Override
+    public Slice<ItemRequest> getItemRequestsAll(long userId, Cursor cursor, Integer size) {
+        log.debug("Получение списка всех не своих запросов для userId={} по курсору", userId);
+        userService.checkUser(userId);
+        if (cursor == null) {
+            return itemRequestRepository.findAllByRequestorIdNot(userId, PageRequest.of(0, size, Sort.by("id")));
+        }
+        return itemRequestRepository.findAllByRequestorIdNotAndIdGreaterThanOrderByIdAsc(userId, cursor.getId(), PageRequest.of(0, size));
+    }
+
     @Override
     public ItemRequest getItemRequest(long userId, long requestId) {
         log.debug("Получение запроса requestId={} для userId={}", requestId, userId);
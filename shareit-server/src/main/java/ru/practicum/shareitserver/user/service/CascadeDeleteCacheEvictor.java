@@ -0,0 +1,44 @@
+package ru.practicum.shareitserver.user.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareitserver.item.model.entity.Item;
+import ru.practicum.shareitserver.requests.model.entity.ItemRequest;
+
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Вещи и запросы пользователя удаляются вместе с ним каскадом в БД (ON DELETE CASCADE) в обход Hibernate,
+ * поэтому после удаления пользователя их регионы кэша второго уровня и кэш запросов очищаются целиком:
+ * сразу и повторно после фиксации транзакции, чтобы параллельное чтение не вернуло в кэш удалённые строки.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CascadeDeleteCacheEvictor {
+    private final EntityManagerFactory entityManagerFactory;
+
+    public void onUserDeleted() {
+        evict();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict();
+                }
+            });
+        }
+    }
+
+    private void evict() {
+        Cache cache = entityManagerFactory.getCache().unwrap(Cache.class);
+        cache.evictEntityData(Item.class);
+        cache.evictEntityData(ItemRequest.class);
+        cache.evictQueryRegions();
+        log.debug("Кэш второго уровня вещей и запросов очищен после удаления пользователя");
+    }
+}
@@ -0,0 +1,71 @@
+package ru.practicum.shareitserver.user.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareitserver.user.repository.UserRepository;
+
+import java.time.Duration;
+
+/**
+ * Кэш существования пользователей для проверок userId в запросах.
+ * Промах проверяется запросом existsById (count по первичному ключу) без загрузки сущности,
+ * кэшируются только существующие id. Размер и время жизни записи ограничены,
+ * число попаданий и промахов публикуется в метриках cache.gets{cache=userExistence}.
+ */
+@Component
+public class UserExistenceCache implements MeterBinder {
+    static final String NAME = "userExistence";
+
+    private final UserRepository userRepository;
+    private final Cache<Long, Boolean> cache;
+
+    public UserExistenceCache(UserRepository userRepository,
+                              @Value("${shareit.user-cache.maximum-size:10000}") long maximumSize,
+                              @Value("${shareit.user-cache.expire-after-write:10m}") Duration expireAfterWrite) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+    }
+
+    public boolean exists(long userId) {
+        if (cache.getIfPresent(userId) != null) {
+            return true;
+        }
+        boolean exists = userRepository.existsById(userId);
+        if (exists) {
+            cache.put(userId, Boolean.TRUE);
+        }
+        return exists;
+    }
+
+    /**
+     * Удаление записи сразу и повторно после фиксации транзакции,
+     * чтобы параллельная проверка не вернула в кэш ещё не удалённого пользователя.
+     */
+    public void invalidate(long userId) {
+        cache.invalidate(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(userId);
+                }
+            });
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, NAME);
+    }
+}
@@ -1,5 +1,6 @@
 package ru.practicum.shareitserver.user.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -12,10 +13,13 @@ import java.util.List;
 
 @Slf4j
 @Service
+@Timed("shareit.service")
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
+    private final UserExistenceCache userExistenceCache;
+    private final CascadeDeleteCacheEvictor cascadeDeleteCacheEvictor;
 
     @Override
     public List<User> getUsers() {
@@ -55,12 +59,16 @@ public class UserServiceImpl implements UserService {
     public void deleteUser(long userId) {
         log.debug("Удаление пользователя с userId={}", userId);
         userRepository.deleteById(userId);
+        userExistenceCache.invalidate(userId);
+        cascadeDeleteCacheEvictor.onUserDeleted();
     }
 
     @Override
     public void checkUser(long userId) {
         log.debug("Проверка существования пользователя с userId={}", userId);
-        getUserByUserId(userId);
+        if (!userExistenceCache.exists(userId)) {
+            throw new NotFoundException("Пользователя с userId=" + userId + " не существует!");
+        }
     }
 
     User getUserByUserId(Long userId) {
@@ -1,4 +1,4 @@
-DROP TABLE IF EXISTS requests, comments, bookings, items, users;
+--Начальная схема. На существующей базе помечается выполненной (spring.flyway.baseline-on-migrate)
 
 --Таблица пользователей
 CREATE TABLE IF NOT EXISTS users
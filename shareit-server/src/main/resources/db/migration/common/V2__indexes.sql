@@ -0,0 +1,23 @@
+--Бронирования пользователя: booker_id = ? order by start_date desc
+CREATE INDEX IF NOT EXISTS bookings_booker_id_start_date_idx ON bookings (booker_id, start_date);
+
+--Бронирования вещей владельца и ближайшее бронирование вещи: item_id = ? order by start_date
+CREATE INDEX IF NOT EXISTS bookings_item_id_start_date_idx ON bookings (item_id, start_date);
+
+--Последнее бронирование вещи: item_id = ? and end_date < ? order by end_date desc
+CREATE INDEX IF NOT EXISTS bookings_item_id_end_date_idx ON bookings (item_id, end_date);
+
+--Бронирования вещей по статусу: item_id = ? and status = ?
+CREATE INDEX IF NOT EXISTS bookings_item_id_status_idx ON bookings (item_id, status);
+
+--Вещи владельца, постранично по id
+CREATE INDEX IF NOT EXISTS items_owner_id_idx ON items (owner_id, id);
+
+--Вещи, созданные в ответ на запрос
+CREATE INDEX IF NOT EXISTS items_request_id_idx ON items (request_id);
+
+--Отзывы о вещи: item_id = ? order by created desc
+CREATE INDEX IF NOT EXISTS comments_item_id_created_idx ON comments (item_id, created);
+
+--Запросы пользователя: requestor_id = ? order by created
+CREATE INDEX IF NOT EXISTS requests_requestor_id_created_idx ON requests (requestor_id, created);
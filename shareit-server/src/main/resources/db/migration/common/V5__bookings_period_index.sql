@@ -0,0 +1,5 @@
+--Пересечение с периодом (поиск свободных вещей): item_id = ? and start_date < ? and end_date > ?
+--Заменяет bookings_item_id_start_date_idx: ведущие столбцы те же, сортировка по start_date обслуживается так же
+CREATE INDEX IF NOT EXISTS bookings_item_id_start_date_end_date_idx ON bookings (item_id, start_date, end_date);
+
+DROP INDEX IF EXISTS bookings_item_id_start_date_idx;
@@ -0,0 +1,15 @@
+--Фаза бронирования (FUTURE, CURRENT, PAST), дальше поддерживается планировщиком сервера
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS phase VARCHAR(10);
+
+UPDATE bookings SET phase = CASE
+    WHEN end_date <= LOCALTIMESTAMP THEN 'PAST'
+    WHEN start_date <= LOCALTIMESTAMP THEN 'CURRENT'
+    ELSE 'FUTURE' END;
+
+ALTER TABLE bookings ALTER COLUMN phase SET NOT NULL;
+
+--Бронирования пользователя по фазе: booker_id = ? and phase = ? order by start_date desc
+CREATE INDEX IF NOT EXISTS bookings_booker_id_phase_start_date_idx ON bookings (booker_id, phase, start_date);
+
+--Бронирования вещей владельца по фазе: item_id = ? and phase = ? order by start_date desc
+CREATE INDEX IF NOT EXISTS bookings_item_id_phase_start_date_idx ON bookings (item_id, phase, start_date);
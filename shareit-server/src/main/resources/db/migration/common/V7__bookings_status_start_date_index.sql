@@ -0,0 +1,2 @@
+--Ожидающие бронирования, начало которых прошло: status = 'WAITING' and start_date <= ? order by id
+CREATE INDEX IF NOT EXISTS bookings_status_start_date_idx ON bookings (status, start_date);
@@ -0,0 +1,7 @@
+-- Ожидающие и подтверждённые бронирования одной вещи не пересекаются по интервалу [start_date, end_date)
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+ALTER TABLE bookings
+    ADD CONSTRAINT bookings_no_overlap
+        EXCLUDE USING gist (item_id WITH =, tsrange(start_date, end_date, '[)') WITH &&)
+        WHERE (status IN ('WAITING', 'APPROVED'));
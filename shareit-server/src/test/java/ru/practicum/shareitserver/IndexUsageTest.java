@@ -0,0 +1,155 @@
+package ru.practicum.shareitserver;
+
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareitserver.booking.BookingPhase;
+import ru.practicum.shareitserver.booking.Status;
+import ru.practicum.shareitserver.booking.repository.BookingRepository;
+import ru.practicum.shareitserver.integration.QueryCounter;
+import ru.practicum.shareitserver.item.repository.CommentRepository;
+import ru.practicum.shareitserver.item.repository.ItemRepository;
+import ru.practicum.shareitserver.requests.repository.ItemRequestRepository;
+
+import java.lang.reflect.InvocationTargetException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Проверка по плану запроса (EXPLAIN), что выборки методов репозиториев идут по индексу, а не полным просмотром таблицы.
+ * Метод репозитория вызывается по-настоящему, его SQL с параметрами перехватывается datasource-proxy
+ * ({@link QueryCounter#capture}) и передаётся в EXPLAIN, поэтому изменение производного запроса или JPQL
+ * проверяется вместе с индексом.
+ * H2, в отличие от PostgreSQL, сам индексирует внешние ключи и на пустых таблицах может выбрать такой индекс,
+ * поэтому по плану проверяется только, что столбец входит в условие выбранного индекса,
+ * а наличие составного индекса из миграций — отдельно.
+ */
+@DataJpaTest
+@Import(QueryCounter.class)
+class IndexUsageTest {
+    private static final Pageable PAGE = PageRequest.of(0, 20);
+    private static final LocalDateTime NOW = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    static Stream<Arguments> repositoryCalls() {
+        return Stream.of(
+                call("BookingRepository.findAllByBookerIdOrderByStartDesc",
+                        test -> test.bookingRepository.findAllByBookerIdOrderByStartDesc(1L, PAGE),
+                        "bookings_booker_id_start_date_idx", "booker_id"),
+                call("BookingRepository.findAllByBookerIdAndPhaseOrderByStartDesc",
+                        test -> test.bookingRepository.findAllByBookerIdAndPhaseOrderByStartDesc(1L, BookingPhase.PAST, PAGE),
+                        "bookings_booker_id_phase_start_date_idx", "booker_id"),
+                call("BookingRepository.findAllByItemOwnerIdOrderByStartDesc",
+                        test -> test.bookingRepository.findAllByItemOwnerIdOrderByStartDesc(1L, PAGE),
+                        "items_owner_id_idx", "owner_id"),
+                call("BookingRepository.findAllByItemOwnerIdAndPhaseOrderByStartDesc",
+                        test -> test.bookingRepository.findAllByItemOwnerIdAndPhaseOrderByStartDesc(1L, BookingPhase.CURRENT, PAGE),
+                        "bookings_item_id_phase_start_date_idx", "owner_id"),
+                call("BookingRepository.findFirstByItemIdAndStartAfterOrderByStartAsc",
+                        test -> test.bookingRepository.findFirstByItemIdAndStartAfterOrderByStartAsc(1L, NOW),
+                        "bookings_item_id_start_date_end_date_idx", "item_id"),
+                call("ItemRepository.findFreeIdsIn (FREE_IN_PERIOD)",
+                        test -> test.itemRepository.findFreeIdsIn(List.of(1L), NOW, NOW.plusDays(1)),
+                        "bookings_item_id_start_date_end_date_idx", "item_id"),
+                call("BookingRepository.findFirstByItemIdAndEndBeforeOrderByEndDesc",
+                        test -> test.bookingRepository.findFirstByItemIdAndEndBeforeOrderByEndDesc(1L, NOW),
+                        "bookings_item_id_end_date_idx", "item_id"),
+                call("BookingRepository.findAllByStatusAndStartedBeforeForUpdate",
+                        test -> test.bookingRepository.findAllByStatusAndStartedBeforeForUpdate(Status.WAITING, NOW,
+                                PageRequest.of(0, 500)),
+                        "bookings_status_start_date_idx", "status"),
+                call("BookingRepository.existsOverlapping",
+                        test -> test.bookingRepository.existsOverlapping(1L, NOW, NOW.plusDays(1), Status.BLOCKING),
+                        "bookings_item_id_status_idx", "item_id"),
+                call("ItemRepository.findItemsByOwnerId",
+                        test -> test.itemRepository.findItemsByOwnerId(1L),
+                        "items_owner_id_idx", "owner_id"),
+                call("ItemRepository.findItemsByRequestId",
+                        test -> test.itemRepository.findItemsByRequestId(1L),
+                        "items_request_id_idx", "request_id"),
+                call("CommentRepository.findAllByItemIdOrderByCreatedDesc",
+                        test -> test.commentRepository.findAllByItemIdOrderByCreatedDesc(1L),
+                        "comments_item_id_created_idx", "item_id"),
+                call("ItemRequestRepository.findItemRequestByRequestorIdOrderByCreatedAsc",
+                        test -> test.itemRequestRepository.findItemRequestByRequestorIdOrderByCreatedAsc(1L),
+                        "requests_requestor_id_created_idx", "requestor_id")
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @DisplayName("Запрос метода репозитория использует индекс")
+    @MethodSource("repositoryCalls")
+    void queryUsesIndex(String method, Consumer<IndexUsageTest> call, String index, String column) {
+        List<QueryInfo> queries = QueryCounter.capture(() -> call.accept(this));
+
+        assertThat(queries).as("SQL метода %s", method).isNotEmpty();
+        String plan = queries.stream()
+                .map(this::explain)
+                .collect(Collectors.joining(System.lineSeparator()));
+        assertThat(plan).as("План запроса %s", method)
+                .doesNotContainIgnoringCase("tableScan")
+                .containsPattern("(?i)/\\* PUBLIC\\.\\w+: [^*]*\\b" + column + " = ");
+        assertThat(jdbcTemplate.queryForObject(
+                "select count(*) from information_schema.indexes where lower(index_name) = ?", Integer.class, index))
+                .as("Индекс %s", index)
+                .isEqualTo(1);
+    }
+
+    /**
+     * EXPLAIN перехваченного запроса с теми же параметрами.
+     */
+    private String explain(QueryInfo query) {
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("explain " + query.getQuery())) {
+                for (List<ParameterSetOperation> parameters : query.getParametersList()) {
+                    for (ParameterSetOperation parameter : parameters) {
+                        try {
+                            parameter.getMethod().invoke(statement, parameter.getArgs());
+                        } catch (IllegalAccessException | InvocationTargetException e) {
+                            throw new IllegalStateException("Не удалось передать параметр в EXPLAIN", e);
+                        }
+                    }
+                }
+                try (ResultSet plan = statement.executeQuery()) {
+                    plan.next();
+                    return plan.getString(1);
+                }
+            }
+        });
+    }
+
+    private static Arguments call(String method, Consumer<IndexUsageTest> call, String index, String column) {
+        return Arguments.of(method, call, index, column);
+    }
+}
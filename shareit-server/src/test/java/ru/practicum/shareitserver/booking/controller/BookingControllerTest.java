@@ -6,13 +6,21 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareitserver.booking.Status;
 import ru.practicum.shareitserver.booking.mapper.BookingMapper;
+import ru.practicum.shareitserver.booking.model.BookingStatusResult;
+import ru.practicum.shareitserver.booking.model.BookingView;
+import ru.practicum.shareitserver.booking.model.dto.BookingBatchRequestDto;
+import ru.practicum.shareitserver.booking.model.dto.BookingRequestDto;
 import ru.practicum.shareitserver.booking.model.dto.BookingResponseDto;
+import ru.practicum.shareitserver.booking.model.dto.BookingStatusUpdateDto;
 import ru.practicum.shareitserver.booking.model.entity.Booking;
 import ru.practicum.shareitserver.booking.service.BookingService;
+import ru.practicum.shareitserver.common.model.Cursor;
 import ru.practicum.shareitserver.item.model.entity.Item;
 import ru.practicum.shareitserver.user.model.entity.User;
 
@@ -20,12 +28,17 @@ import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.stream.Collectors;
 
+import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static ru.practicum.shareitserver.common.Constants.X_NEXT_CURSOR;
 import static ru.practicum.shareitserver.common.Constants.X_SHARER_USER_ID;
 
 @WebMvcTest(controllers = BookingController.class)
@@ -75,7 +88,7 @@ class BookingControllerTest {
     void getBookingsByOwnerId() throws Exception {
         List<Booking> bookings = List.of(booking1, booking2);
         when(bookingService.getBookingsByOwnerId(anyLong(), any(), anyInt(), anyInt()))
-                .thenReturn(bookings);
+                .thenReturn(toViews(bookings));
 
         List<BookingResponseDto> bookingResponseDtoList = BookingMapper.toBookingDtoList(bookings);
         mvc.perform(get("/bookings/owner")
@@ -92,7 +105,7 @@ class BookingControllerTest {
     void getBookingsByBookerId() throws Exception {
         List<Booking> bookings = List.of(booking1, booking2);
         when(bookingService.getBookingsByBookerId(anyLong(), any(), anyInt(), anyInt()))
-                .thenReturn(bookings);
+                .thenReturn(toViews(bookings));
 
         List<BookingResponseDto> bookingResponseDtoList = BookingMapper.toBookingDtoList(bookings);
         mvc.perform(get("/bookings")
@@ -104,6 +117,43 @@ class BookingControllerTest {
                 .andExpect(content().json(mapper.writeValueAsString(bookingResponseDtoList)));
     }
 
+    @Test
+    @DisplayName("Получение списка бронирований пользователя по курсору")
+    void getBookingsByBookerIdWithCursor() throws Exception {
+        List<Booking> bookings = List.of(booking2, booking1);
+        when(bookingService.getBookingsByBookerId(anyLong(), any(), (Cursor) isNull(), anyInt()))
+                .thenReturn(new SliceImpl<>(toViews(bookings), PageRequest.of(0, 2), true));
+
+        List<BookingResponseDto> bookingResponseDtoList = BookingMapper.toBookingDtoList(bookings);
+        mvc.perform(get("/bookings")
+                        .header(X_SHARER_USER_ID, booking1.getBooker().getId())
+                        .param("state", "ALL")
+                        .param("size", "2")
+                        .param("cursor", ""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(X_NEXT_CURSOR, Cursor.of(booking1.getStart(), booking1.getId()).encode()))
+                .andExpect(content().json(mapper.writeValueAsString(bookingResponseDtoList)));
+    }
+
+    @Test
+    @DisplayName("Некорректный курсор")
+    void getBookingsByBookerIdWithWrongCursor() throws Exception {
+        mvc.perform(get("/bookings")
+                        .header(X_SHARER_USER_ID, booking1.getBooker().getId())
+                        .param("cursor", "не курсор"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Курсор выдачи вещей не принимается выдачей бронирований")
+    void getBookingsByOwnerIdWithIdOnlyCursor() throws Exception {
+        mvc.perform(get("/bookings/owner")
+                        .header(X_SHARER_USER_ID, booking1.getItem().getOwner().getId())
+                        .param("cursor", Cursor.of(booking1.getId()).encode()))
+                .andExpect(status().isBadRequest());
+        verify(bookingService, never()).getBookingsByOwnerId(anyLong(), any(), any(Cursor.class), anyInt());
+    }
+
     @Test
     @DisplayName("Добавление нового бронирования пользователем")
     void addBooking() throws Exception {
@@ -125,6 +175,27 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$.status", is(booking1.getStatus().toString())));
     }
 
+    @Test
+    @DisplayName("Пакетное добавление бронирований")
+    void addBookings() throws Exception {
+        when(bookingService.addBookings(anyLong(), anyList()))
+                .thenReturn(List.of(booking1));
+        BookingRequestDto requestDto = new BookingRequestDto(booking1.getStart(), booking1.getEnd(),
+                booking1.getItem().getId());
+
+        mvc.perform(post("/bookings/batch")
+                        .header(X_SHARER_USER_ID, booking1.getBooker().getId())
+                        .content(mapper.writeValueAsString(new BookingBatchRequestDto(List.of(requestDto))))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(booking1.getId()), Long.class))
+                .andExpect(jsonPath("$[0].item.id", is(booking1.getItem().getId()), Long.class))
+                .andExpect(jsonPath("$[0].status", is(booking1.getStatus().toString())));
+    }
+
     @Test
     @DisplayName("Подтверждение запроса на бронирование пользователем")
     void updateBooking() throws Exception {
@@ -148,6 +219,30 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$.status", is(Status.APPROVED.toString())));
     }
 
+    @Test
+    @DisplayName("Массовое подтверждение запросов на бронирование владельцем")
+    void updateBookings() throws Exception {
+        when(bookingService.updateBookingStatuses(anyLong(), anyList(), anyBoolean()))
+                .thenReturn(List.of(
+                        new BookingStatusResult(booking1.getId(), true, Status.APPROVED, null),
+                        new BookingStatusResult(99L, false, null, "нет")));
+
+        mvc.perform(patch("/bookings/status")
+                        .header(X_SHARER_USER_ID, booking1.getItem().getOwner().getId())
+                        .content(mapper.writeValueAsString(
+                                new BookingStatusUpdateDto(List.of(booking1.getId(), 99L), true)))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id", is(booking1.getId()), Long.class))
+                .andExpect(jsonPath("$[0].updated", is(true)))
+                .andExpect(jsonPath("$[0].status", is(Status.APPROVED.toString())))
+                .andExpect(jsonPath("$[1].updated", is(false)))
+                .andExpect(jsonPath("$[1].error", is("нет")));
+    }
+
     private Booking copyBooking(Booking booking) {
         Booking newBooking = new Booking();
         newBooking.setId(booking.getId());
@@ -158,4 +253,13 @@ class BookingControllerTest {
         newBooking.setStatus(booking.getStatus());
         return newBooking;
     }
-}
\ No newline at end of file
+
+    private static List<BookingView> toViews(List<Booking> bookings) {
+        return bookings.stream()
+                .map(booking -> new BookingView(booking.getId(), booking.getStart(), booking.getEnd(), booking.getStatus(),
+                        booking.getItem().getId(), booking.getItem().getName(), booking.getItem().getDescription(),
+                        booking.getItem().getAvailable(), null,
+                        booking.getBooker().getId(), booking.getBooker().getName(), booking.getBooker().getEmail()))
+                .collect(Collectors.toList());
+    }
+}
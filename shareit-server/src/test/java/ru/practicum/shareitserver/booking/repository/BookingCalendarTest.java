@@ -0,0 +1,117 @@
+package ru.practicum.shareitserver.booking.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareitserver.booking.Status;
+import ru.practicum.shareitserver.booking.model.AvailabilitySlot;
+import ru.practicum.shareitserver.booking.model.entity.Booking;
+import ru.practicum.shareitserver.item.model.entity.Item;
+import ru.practicum.shareitserver.user.model.entity.User;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Календарь обновляется только после фиксации транзакции,
+ * поэтому тесты работают без общей откатываемой транзакции и чистят данные сами.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BookingCalendarTest {
+    private static final LocalDateTime T0 = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(status -> {
+            em.createQuery("delete from Booking").executeUpdate();
+            em.createQuery("delete from Item").executeUpdate();
+            em.createQuery("delete from User").executeUpdate();
+        });
+    }
+
+    @Test
+    @DisplayName("До первого построения календаря занятость вещи читается из БД")
+    void getSlotsBeforeFirstRebuild() {
+        Item item = transactionTemplate.execute(status -> {
+            User owner = persist(new User(null, "Maria", "maria_smart@mail.ru"));
+            User booker = persist(new User(null, "Ivan", "ivan@mail.ru"));
+            Item saved = persist(new Item(null, "Дрель", "ударная", true, owner, null));
+            persist(new Booking(null, at(2), at(4), saved, booker, Status.APPROVED));
+            persist(new Booking(null, at(6), at(8), saved, booker, Status.REJECTED));
+            return saved;
+        });
+        BookingCalendar notBuilt = new BookingCalendar(bookingRepository, em);
+
+        assertThat(notBuilt.getSlots(item.getId(), at(0), at(10)))
+                .containsExactly(free(0, 2), busy(2, 4), free(4, 10));
+    }
+
+    @Test
+    @DisplayName("Бронирования, сохранённые во время перестроения календаря, не теряются при подмене индекса")
+    void onBookingSavedDuringRebuild() {
+        User booker = transactionTemplate.execute(status -> persist(new User(null, "Ivan", "ivan@mail.ru")));
+        Item item = transactionTemplate.execute(status -> {
+            User owner = persist(new User(null, "Maria", "maria_smart@mail.ru"));
+            return persist(new Item(null, "Дрель", "ударная", true, owner, null));
+        });
+        Booking streamed = transactionTemplate.execute(status ->
+                persist(new Booking(null, at(2), at(4), item, booker, Status.WAITING)));
+        BookingRepository slowRepository = mock(BookingRepository.class, delegatesTo(bookingRepository));
+        BookingCalendar calendar = new BookingCalendar(slowRepository, em);
+        TransactionTemplate concurrent = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        concurrent.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        // пока читается первое бронирование, другая транзакция отклоняет его и добавляет новое
+        doAnswer(invocation -> bookingRepository.streamAllByStatusIn(Status.BLOCKING)
+                .peek(booking -> concurrent.executeWithoutResult(status -> {
+                    Booking rejected = em.find(Booking.class, streamed.getId());
+                    rejected.setStatus(Status.REJECTED);
+                    calendar.onBookingSaved(rejected);
+                    calendar.onBookingSaved(persist(new Booking(null, at(6), at(8), em.find(Item.class, item.getId()),
+                            em.find(User.class, booker.getId()), Status.WAITING)));
+                })))
+                .when(slowRepository).streamAllByStatusIn(Status.BLOCKING);
+
+        transactionTemplate.executeWithoutResult(status -> calendar.rebuild());
+
+        assertThat(calendar.getSlots(item.getId(), at(0), at(10)))
+                .containsExactly(free(0, 6), busy(6, 8), free(8, 10));
+    }
+
+    private <T> T persist(T entity) {
+        em.persist(entity);
+        return entity;
+    }
+
+    private static LocalDateTime at(int hours) {
+        return T0.plusHours(hours);
+    }
+
+    private static AvailabilitySlot free(int from, int to) {
+        return new AvailabilitySlot(at(from), at(to), true);
+    }
+
+    private static AvailabilitySlot busy(int from, int to) {
+        return new AvailabilitySlot(at(from), at(to), false);
+    }
+}
@@ -0,0 +1,100 @@
+package ru.practicum.shareitserver.booking.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareitserver.booking.model.AvailabilitySlot;
+
+import java.time.LocalDateTime;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+
+class BookingIntervalIndexTest {
+    private static final LocalDateTime T0 = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    private BookingIntervalIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new BookingIntervalIndex();
+        index.put(1L, 10L, at(2), at(4));
+        index.put(1L, 11L, at(6), at(8));
+        index.put(2L, 20L, at(0), at(24));
+    }
+
+    @Test
+    @DisplayName("Свободные и занятые интервалы вещи по порядку")
+    void slots() {
+        assertThat(index.slots(1L, at(0), at(10)), contains(
+                free(0, 2), busy(2, 4), free(4, 6), busy(6, 8), free(8, 10)));
+    }
+
+    @Test
+    @DisplayName("Бронирования обрезаются по границам периода")
+    void slotsClipped() {
+        assertThat(index.slots(1L, at(3), at(7)), contains(busy(3, 4), free(4, 6), busy(6, 7)));
+        assertThat(index.slots(2L, at(1), at(2)), contains(busy(1, 2)));
+    }
+
+    @Test
+    @DisplayName("Вещь без бронирований свободна весь период")
+    void slotsWithoutBookings() {
+        assertThat(index.slots(3L, at(0), at(5)), contains(free(0, 5)));
+        assertThat(index.slots(1L, at(8), at(10)), contains(free(8, 10)));
+    }
+
+    @Test
+    @DisplayName("Пересекающиеся и длинные бронирования сливаются")
+    void slotsMerged() {
+        index.put(1L, 12L, at(1), at(7));
+
+        assertThat(index.slots(1L, at(0), at(10)), contains(free(0, 1), busy(1, 8), free(8, 10)));
+        assertThat(index.slots(1L, at(5), at(6)), contains(busy(5, 6)));
+    }
+
+    @Test
+    @DisplayName("Изменение и удаление бронирования")
+    void putAndRemove() {
+        index.put(1L, 10L, at(3), at(5));
+        index.remove(1L, 11L);
+
+        assertThat(index.slots(1L, at(0), at(10)), contains(free(0, 3), busy(3, 5), free(5, 10)));
+        assertThat(index.size(), equalTo(2));
+    }
+
+    @Test
+    @DisplayName("Построенный целиком из неупорядоченных бронирований индекс совпадает с построенным по одному")
+    void builder() {
+        BookingIntervalIndex built = BookingIntervalIndex.builder()
+                .put(1L, 11L, at(6), at(8))
+                .put(2L, 20L, at(0), at(24))
+                .put(1L, 12L, at(1), at(7))
+                .put(1L, 10L, at(2), at(4))
+                .build();
+        index.put(1L, 12L, at(1), at(7));
+
+        assertThat(built.slots(1L, at(0), at(10)), equalTo(index.slots(1L, at(0), at(10))));
+        assertThat(built.slots(1L, at(5), at(6)), contains(busy(5, 6)));
+        assertThat(built.slots(2L, at(1), at(2)), contains(busy(1, 2)));
+        assertThat(built.size(), equalTo(4));
+
+        built.remove(1L, 12L);
+        built.put(1L, 13L, at(9), at(10));
+        assertThat(built.slots(1L, at(0), at(10)), contains(
+                free(0, 2), busy(2, 4), free(4, 6), busy(6, 8), free(8, 9), busy(9, 10)));
+    }
+
+    private static LocalDateTime at(int hours) {
+        return T0.plusHours(hours);
+    }
+
+    private static AvailabilitySlot free(int from, int to) {
+        return new AvailabilitySlot(at(from), at(to), true);
+    }
+
+    private static AvailabilitySlot busy(int from, int to) {
+        return new AvailabilitySlot(at(from), at(to), false);
+    }
+}
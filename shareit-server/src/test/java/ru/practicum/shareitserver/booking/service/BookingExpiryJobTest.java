@@ -0,0 +1,88 @@
+package ru.practicum.shareitserver.booking.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareitserver.booking.Status;
+import ru.practicum.shareitserver.booking.model.entity.Booking;
+import ru.practicum.shareitserver.booking.repository.BookingCalendar;
+import ru.practicum.shareitserver.booking.repository.BookingRepository;
+import ru.practicum.shareitserver.item.model.entity.Item;
+import ru.practicum.shareitserver.user.model.entity.User;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+
+@ExtendWith(MockitoExtension.class)
+class BookingExpiryJobTest {
+    private static final User USER_1 = new User(1L, "Maria", "maria_smart@mail.ru");
+    private static final User USER_2 = new User(2L, "Ivan", "ivan_humble@mail.ru");
+    private static final Item ITEM_1 = new Item(1L, "Магнит", "сувенир", true, USER_1, null);
+
+    @Mock
+    BookingRepository mockBookingRepository;
+    @Mock
+    BookingCalendar mockBookingCalendar;
+    @Mock
+    PlatformTransactionManager mockTransactionManager;
+
+    BookingExpiryJob job;
+
+    @BeforeEach
+    void setUp() {
+        job = new BookingExpiryJob(mockBookingRepository, mockBookingCalendar, mockTransactionManager,
+                Duration.ofMinutes(5), 2, Duration.ZERO);
+    }
+
+    @Test
+    @DisplayName("Ожидающие бронирования отклоняются пачками по chunk-size")
+    void expire() {
+        LocalDateTime now = LocalDateTime.now();
+        Mockito
+                .when(mockBookingRepository.countByStatusAndStartLessThanEqual(Status.WAITING, now.minusMinutes(5)))
+                .thenReturn(3L);
+        Mockito
+                .when(mockBookingRepository.findAllByStatusAndStartedBeforeForUpdate(
+                        eq(Status.WAITING), eq(now.minusMinutes(5)), any()))
+                .thenReturn(List.of(booking(1L), booking(2L)))
+                .thenReturn(List.of(booking(3L)));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        job.bindTo(registry);
+
+        int expired = job.expire(now);
+
+        assertThat(expired, equalTo(3));
+        Mockito.verify(mockBookingRepository).updateStatus(List.of(1L, 2L), Status.REJECTED);
+        Mockito.verify(mockBookingRepository).updateStatus(List.of(3L), Status.REJECTED);
+        Mockito.verify(mockBookingCalendar, Mockito.times(3)).onBookingSaved(any());
+        assertThat(registry.get("booking.expiry.backlog").gauge().value(), equalTo(0.0));
+        assertThat(registry.get("booking.expiry.expired").functionCounter().count(), equalTo(3.0));
+    }
+
+    @Test
+    @DisplayName("Без ожидающих бронирований ничего не обновляется")
+    void expireNothing() {
+        int expired = job.expire(LocalDateTime.now());
+
+        assertThat(expired, equalTo(0));
+        assertThat(job.backlog(), equalTo(0L));
+        Mockito.verify(mockBookingRepository, Mockito.never()).updateStatus(any(), any());
+    }
+
+    private static Booking booking(long id) {
+        LocalDateTime start = LocalDateTime.now().minusHours(1);
+        return new Booking(id, start, start.plusDays(1), ITEM_1, USER_2, Status.WAITING);
+    }
+}
@@ -0,0 +1,105 @@
+package ru.practicum.shareitserver.booking.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareitserver.booking.BookingPhase;
+import ru.practicum.shareitserver.booking.Status;
+import ru.practicum.shareitserver.booking.model.entity.Booking;
+import ru.practicum.shareitserver.booking.repository.BookingRepository;
+import ru.practicum.shareitserver.user.model.entity.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.ArgumentMatchers.any;
+
+@ExtendWith(MockitoExtension.class)
+class BookingPhaseSchedulerTest {
+    private static final User BOOKER = new User(2L, "Ivan", "ivan_humble@mail.ru");
+
+    @Mock
+    BookingRepository mockBookingRepository;
+    @Mock
+    PlatformTransactionManager mockTransactionManager;
+
+    BookingPhaseScheduler scheduler;
+
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new BookingPhaseScheduler(mockBookingRepository, mockTransactionManager, 1000);
+        now = LocalDateTime.now();
+    }
+
+    @Test
+    @DisplayName("Бронирование переводится в CURRENT в момент начала и в PAST в момент конца")
+    void advance() {
+        scheduler.rebuild();
+        scheduler.onBookingSaved(booking(1L, now.plusSeconds(5), now.plusSeconds(65), BookingPhase.FUTURE));
+
+        scheduler.advance(now.plusSeconds(3));
+        Mockito.verify(mockBookingRepository, Mockito.never()).updatePhase(any(), any());
+
+        scheduler.advance(now.plusSeconds(7));
+        Mockito.verify(mockBookingRepository).updatePhase(List.of(1L), BookingPhase.CURRENT);
+        assertThat(scheduler.mayHaveBookings(BOOKER.getId(), BookingPhase.FUTURE), equalTo(false));
+        assertThat(scheduler.mayHaveBookings(BOOKER.getId(), BookingPhase.CURRENT), equalTo(true));
+
+        scheduler.advance(now.plusSeconds(70));
+        Mockito.verify(mockBookingRepository).updatePhase(List.of(1L), BookingPhase.PAST);
+        assertThat(scheduler.mayHaveBookings(BOOKER.getId(), BookingPhase.PAST), equalTo(true));
+        assertThat(scheduler.pending(), equalTo(0));
+    }
+
+    @Test
+    @DisplayName("Без бронирований в фазе счётчик автора нулевой после загрузки")
+    void mayHaveBookings() {
+        Mockito
+                .when(mockBookingRepository.countByBookerIdAndPhase())
+                .thenReturn(List.of());
+        Mockito
+                .when(mockBookingRepository.streamAllByPhaseIn(any()))
+                .thenReturn(Stream.of(booking(1L, now.plusDays(1), now.plusDays(2), BookingPhase.FUTURE)));
+        assertThat(scheduler.mayHaveBookings(BOOKER.getId(), BookingPhase.PAST), equalTo(true));
+
+        scheduler.rebuild();
+        scheduler.onBookingSaved(booking(2L, now.plusDays(3), now.plusDays(4), BookingPhase.FUTURE));
+
+        assertThat(scheduler.mayHaveBookings(BOOKER.getId(), BookingPhase.FUTURE), equalTo(true));
+        assertThat(scheduler.mayHaveBookings(BOOKER.getId(), BookingPhase.PAST), equalTo(false));
+        assertThat(scheduler.mayHaveBookings(3L, BookingPhase.FUTURE), equalTo(false));
+        assertThat(scheduler.pending(), equalTo(2));
+    }
+
+    @Test
+    @DisplayName("При ошибке UPDATE перевод повторяется на следующем такте")
+    void advanceRetry() {
+        scheduler.onBookingSaved(booking(1L, now.plusSeconds(2), now.plusDays(1), BookingPhase.FUTURE));
+        Mockito
+                .when(mockBookingRepository.updatePhase(any(), any()))
+                .thenThrow(new IllegalStateException("БД недоступна"))
+                .thenReturn(1);
+
+        scheduler.advance(now.plusSeconds(5));
+        scheduler.advance(now.plusSeconds(6));
+
+        Mockito.verify(mockBookingRepository, Mockito.times(2)).updatePhase(List.of(1L), BookingPhase.CURRENT);
+        assertThat(scheduler.mayHaveBookings(BOOKER.getId(), BookingPhase.CURRENT), equalTo(true));
+    }
+
+    private static Booking booking(long id, LocalDateTime start, LocalDateTime end, BookingPhase phase) {
+        Booking booking = new Booking(id, start, end, null, BOOKER, Status.WAITING);
+        booking.setPhase(phase);
+        return booking;
+    }
+}
@@ -9,10 +9,16 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageImpl;
+import ru.practicum.shareitserver.booking.BookingPhase;
 import ru.practicum.shareitserver.booking.BookingState;
 import ru.practicum.shareitserver.booking.Status;
+import ru.practicum.shareitserver.booking.model.BookingStatusResult;
+import ru.practicum.shareitserver.booking.model.BookingView;
 import ru.practicum.shareitserver.booking.model.entity.Booking;
+import ru.practicum.shareitserver.booking.repository.BookingBatchRepository;
+import ru.practicum.shareitserver.booking.repository.BookingCalendar;
 import ru.practicum.shareitserver.booking.repository.BookingRepository;
+import ru.practicum.shareitserver.common.exception.BadRequestException;
 import ru.practicum.shareitserver.item.model.entity.Item;
 import ru.practicum.shareitserver.item.service.ItemService;
 import ru.practicum.shareitserver.user.model.entity.User;
@@ -36,6 +42,12 @@ class BookingServiceImplTest {
     ItemService mockItemService;
     @Mock
     UserService mockUserService;
+    @Mock
+    BookingCalendar mockBookingCalendar;
+    @Mock
+    BookingBatchRepository mockBookingBatchRepository;
+    @Mock
+    BookingPhaseScheduler mockBookingPhaseScheduler;
 
     BookingServiceImpl bookingServiceImpl;
 
@@ -50,9 +62,15 @@ class BookingServiceImplTest {
     private static final Booking BOOKING_2 = new Booking(2L,
             LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2), ITEM_2, USER_2, Status.WAITING);
 
+    private static final BookingView VIEW_1 = new BookingView(1L, BOOKING_1.getStart(), BOOKING_1.getEnd(),
+            Status.WAITING, 1L, "Магнит", "сувенир", true, null, 2L, "Ivan", "ivan_humble@mail.ru");
+    private static final BookingView VIEW_2 = new BookingView(2L, BOOKING_2.getStart(), BOOKING_2.getEnd(),
+            Status.WAITING, 2L, "Открытка", "сувенир", true, null, 2L, "Ivan", "ivan_humble@mail.ru");
+
     @BeforeEach
     void setUp() {
-        bookingServiceImpl = new BookingServiceImpl(mockBookingRepository, mockItemService, mockUserService);
+        bookingServiceImpl = new BookingServiceImpl(mockBookingRepository, mockBookingBatchRepository, mockItemService,
+                mockUserService, mockBookingCalendar, mockBookingPhaseScheduler);
     }
 
     @Test
@@ -70,7 +88,7 @@ class BookingServiceImplTest {
     @DisplayName("Добавление бронирования")
     void addBooking() {
         Mockito
-                .when(mockItemService.getItemId(anyLong(), anyLong()))
+                .when(mockItemService.getItemForBooking(anyLong(), anyLong()))
                 .thenReturn(ITEM_1);
         Mockito
                 .when(mockUserService.getUserById(anyLong()))
@@ -83,6 +101,75 @@ class BookingServiceImplTest {
         checkFields(targetBooking, BOOKING_1);
     }
 
+    @Test
+    @DisplayName("Добавление бронирования, пересекающегося с существующим")
+    void addBookingOverlapping() {
+        Mockito
+                .when(mockItemService.getItemForBooking(anyLong(), anyLong()))
+                .thenReturn(ITEM_1);
+        Mockito
+                .when(mockBookingRepository.existsOverlapping(anyLong(), any(), any(), any()))
+                .thenReturn(true);
+
+        Assertions.assertThrows(BadRequestException.class,
+                () -> bookingServiceImpl.addBooking(USER_2.getId(), ITEM_1.getId(), copyBooking(BOOKING_1)));
+        Mockito.verify(mockBookingRepository, Mockito.never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Добавление бронирования с началом не раньше конца")
+    void addBookingWithStartNotBeforeEnd() {
+        LocalDateTime start = LocalDateTime.now().plusDays(2);
+        Booking booking = new Booking(null, start, start, ITEM_1, null, null);
+
+        Assertions.assertThrows(BadRequestException.class,
+                () -> bookingServiceImpl.addBooking(USER_2.getId(), ITEM_1.getId(), booking));
+        Booking reversed = new Booking(null, start, start.minusDays(1), ITEM_1, null, null);
+        Assertions.assertThrows(BadRequestException.class,
+                () -> bookingServiceImpl.addBooking(USER_2.getId(), ITEM_1.getId(), reversed));
+        Mockito.verify(mockBookingRepository, Mockito.never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Пакетное добавление бронирований")
+    void addBookings() {
+        Mockito
+                .when(mockUserService.getUserById(anyLong()))
+                .thenReturn(USER_2);
+        Mockito
+                .when(mockItemService.getItemsForBooking(anyLong(), any()))
+                .thenReturn(List.of(ITEM_1, ITEM_2));
+        Mockito
+                .when(mockBookingBatchRepository.insertAll(any()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        List<Booking> bookings = List.of(newBooking(ITEM_1.getId(), 1, 2), newBooking(ITEM_2.getId(), 1, 2));
+
+        List<Booking> targetBookings = bookingServiceImpl.addBookings(USER_2.getId(), bookings);
+
+        Assertions.assertEquals(2, targetBookings.size());
+        assertThat(targetBookings.get(0).getItem(), equalTo(ITEM_1));
+        assertThat(targetBookings.get(1).getItem(), equalTo(ITEM_2));
+        assertThat(targetBookings.get(1).getBooker(), equalTo(USER_2));
+        assertThat(targetBookings.get(1).getStatus(), equalTo(Status.WAITING));
+        Mockito.verify(mockBookingCalendar, Mockito.times(2)).onBookingSaved(any());
+    }
+
+    @Test
+    @DisplayName("Пакетное добавление бронирований с пересечением внутри корзины не создаёт ни одного")
+    void addBookingsOverlappingInCart() {
+        Mockito
+                .when(mockUserService.getUserById(anyLong()))
+                .thenReturn(USER_2);
+        Mockito
+                .when(mockItemService.getItemsForBooking(anyLong(), any()))
+                .thenReturn(List.of(ITEM_1));
+        List<Booking> bookings = List.of(newBooking(ITEM_1.getId(), 1, 3), newBooking(ITEM_1.getId(), 2, 4));
+
+        Assertions.assertThrows(BadRequestException.class,
+                () -> bookingServiceImpl.addBookings(USER_2.getId(), bookings));
+        Mockito.verifyNoInteractions(mockBookingBatchRepository, mockBookingCalendar);
+    }
+
     @Test
     @DisplayName("Проставление статуса бронирования")
     void updateBookingStatus() {
@@ -99,39 +186,78 @@ class BookingServiceImplTest {
         checkFields(targetBooking, sourceBooking);
     }
 
+    @Test
+    @DisplayName("Массовое проставление статуса бронирований")
+    void updateBookingStatuses() {
+        Booking waiting = copyBooking(BOOKING_1);
+        waiting.setStatus(Status.WAITING);
+        Booking approved = copyBooking(BOOKING_2);
+        approved.setStatus(Status.APPROVED);
+        Mockito
+                .when(mockBookingRepository.findAllByIdInAndOwnerIdForUpdate(any(), anyLong()))
+                .thenReturn(List.of(waiting, approved));
+
+        List<BookingStatusResult> results = bookingServiceImpl.updateBookingStatuses(USER_1.getId(),
+                List.of(BOOKING_1.getId(), BOOKING_2.getId(), 3L, BOOKING_1.getId()), false);
+
+        Assertions.assertEquals(List.of(
+                new BookingStatusResult(BOOKING_1.getId(), true, Status.REJECTED, null),
+                new BookingStatusResult(BOOKING_2.getId(), false, Status.APPROVED,
+                        "Подтвердить или отклонить запрос на бронирование может только в статусе WAITING!"),
+                new BookingStatusResult(3L, false, null,
+                        "Бронирования с bookingId=3 нет среди бронирований вещей пользователя!")
+        ), results);
+        Mockito.verify(mockBookingRepository).updateStatus(List.of(BOOKING_1.getId()), Status.REJECTED);
+        Mockito.verify(mockBookingCalendar).onBookingSaved(any());
+    }
+
     @Test
     @DisplayName("Получение бронирования для пользователя со state WAITING")
     void getBookingsByBookerId() {
-        List<Booking> sourceBookings = List.of(BOOKING_1, BOOKING_2);
+        List<BookingView> sourceBookings = List.of(VIEW_1, VIEW_2);
         Mockito
                 .when(mockBookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(anyLong(), any(), any()))
                 .thenReturn(new PageImpl<>(sourceBookings));
 
-        List<Booking> targetBookings = bookingServiceImpl.getBookingsByBookerId(USER_1.getId(), BookingState.WAITING, 0, 20);
+        List<BookingView> targetBookings = bookingServiceImpl.getBookingsByBookerId(USER_1.getId(), BookingState.WAITING, 0, 20);
         Assertions.assertEquals(sourceBookings.size(), targetBookings.size());
     }
 
     @Test
     @DisplayName("Получение бронирования вещей пользователя со state WAITING")
     void getBookingsByOwnerId() {
-        List<Booking> sourceBookings = List.of(BOOKING_1, BOOKING_2);
+        List<BookingView> sourceBookings = List.of(VIEW_1, VIEW_2);
         Mockito
-                .when(mockItemService.getItemsByUserId(anyLong()))
-                .thenReturn(List.of(ITEM_1, ITEM_2));
+                .when(mockBookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDesc(anyLong(), any(), any()))
+                .thenReturn(new PageImpl<>(sourceBookings));
+
+        List<BookingView> targetBookings = bookingServiceImpl.getBookingsByOwnerId(USER_1.getId(), BookingState.WAITING, 0, 20);
+        Assertions.assertEquals(sourceBookings.size(), targetBookings.size());
+    }
+
+    @Test
+    @DisplayName("Получение бронирования для пользователя со state FUTURE по фазе")
+    void getBookingsByBookerIdInPhase() {
+        List<BookingView> sourceBookings = List.of(VIEW_1, VIEW_2);
+        Mockito
+                .when(mockBookingPhaseScheduler.mayHaveBookings(USER_2.getId(), BookingPhase.FUTURE))
+                .thenReturn(true);
         Mockito
-                .when(mockBookingRepository.findAllByItemIdAndStatusOrderByStartDesc(anyLong(), any(), any()))
-                .thenAnswer(invocationOnMock -> {
-                    long itemId = invocationOnMock.getArgument(0, Long.class);
-                    if (itemId == 1) {
-                        return new PageImpl<>(List.of(BOOKING_1));
-                    } else if (itemId == 2) {
-                        return new PageImpl<>(List.of(BOOKING_2));
-                    }
-                    return null;
-                });
-
-        List<Booking> targetBookings = bookingServiceImpl.getBookingsByOwnerId(USER_1.getId(), BookingState.WAITING, 0, 20);
+                .when(mockBookingRepository.findAllByBookerIdAndPhaseOrderByStartDesc(anyLong(), any(), any()))
+                .thenReturn(new PageImpl<>(sourceBookings));
+
+        List<BookingView> targetBookings = bookingServiceImpl.getBookingsByBookerId(USER_2.getId(), BookingState.FUTURE, 0, 20);
         Assertions.assertEquals(sourceBookings.size(), targetBookings.size());
+        Mockito.verify(mockBookingRepository).findAllByBookerIdAndPhaseOrderByStartDesc(anyLong(), Mockito.eq(BookingPhase.FUTURE), any());
+    }
+
+    @Test
+    @DisplayName("Без бронирований в фазе список пуст без запроса к БД")
+    void getBookingsByBookerIdWithoutBookingsInPhase() {
+        List<BookingView> targetBookings = bookingServiceImpl.getBookingsByBookerId(USER_2.getId(), BookingState.PAST, 0, 20);
+
+        Assertions.assertTrue(targetBookings.isEmpty());
+        Mockito.verify(mockBookingRepository, Mockito.never()).findAllByBookerIdAndPhaseOrderByStartDesc(anyLong(), any(), any());
     }
 
     @Test
@@ -165,6 +291,13 @@ class BookingServiceImplTest {
         assertThat(targetBooking.getStatus(), equalTo(sourceBooking.getStatus()));
     }
 
+    private Booking newBooking(long itemId, int startDays, int endDays) {
+        Item item = new Item();
+        item.setId(itemId);
+        return new Booking(null, LocalDateTime.now().plusDays(startDays), LocalDateTime.now().plusDays(endDays),
+                item, null, null);
+    }
+
     private Booking copyBooking(Booking booking) {
         Booking newBooking = new Booking();
         newBooking.setId(booking.getId());
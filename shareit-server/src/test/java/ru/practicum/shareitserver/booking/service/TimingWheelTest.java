@@ -0,0 +1,77 @@
+package ru.practicum.shareitserver.booking.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+
+class TimingWheelTest {
+    private static final long TICK = 10;
+
+    private TimingWheel<String> wheel;
+    private final List<String> expired = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        wheel = new TimingWheel<>(TICK, 4, 1000);
+    }
+
+    @Test
+    @DisplayName("Запись срабатывает на первом такте не раньше срока")
+    void advanceNear() {
+        wheel.add(1015, "a");
+
+        wheel.advance(1019, expired::add);
+        assertThat(expired, empty());
+
+        wheel.advance(1020, expired::add);
+        assertThat(expired, contains("a"));
+    }
+
+    @Test
+    @DisplayName("Записи дальше оборота колеса спускаются с верхних уровней и срабатывают в срок")
+    void advanceFar() {
+        wheel.add(1500, "far");
+        wheel.add(1170, "middle");
+        wheel.add(1030, "near");
+
+        wheel.advance(1160, expired::add);
+        assertThat(expired, contains("near"));
+
+        wheel.advance(1499, expired::add);
+        assertThat(expired, contains("near", "middle"));
+
+        wheel.advance(1500, expired::add);
+        assertThat(expired, contains("near", "middle", "far"));
+    }
+
+    @Test
+    @DisplayName("Сдвиг сразу на много оборотов отдаёт записи в порядке срока")
+    void advanceJump() {
+        wheel.add(5000, "c");
+        wheel.add(1040, "a");
+        wheel.add(1300, "b");
+
+        wheel.advance(10_000, expired::add);
+
+        assertThat(expired, contains("a", "b", "c"));
+    }
+
+    @Test
+    @DisplayName("Запись с наступившим сроком не добавляется")
+    void addExpired() {
+        wheel.advance(1100, expired::add);
+
+        assertThat(wheel.add(1100, "late"), equalTo(false));
+        assertThat(wheel.add(1101, "next"), equalTo(true));
+        wheel.advance(1110, expired::add);
+        assertThat(expired, contains("next"));
+    }
+}
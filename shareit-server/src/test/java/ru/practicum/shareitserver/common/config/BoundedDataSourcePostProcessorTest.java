@@ -0,0 +1,41 @@
+package ru.practicum.shareitserver.common.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BoundedDataSourcePostProcessorTest {
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withBean("boundedDataSourcePostProcessor", BeanPostProcessor.class,
+                    () -> VirtualThreadsConfig.boundedDataSourcePostProcessor(2, Duration.ofSeconds(1)));
+
+    @Test
+    @DisplayName("Единственный DataSource оборачивается в BoundedDataSource")
+    void singleDataSource() {
+        contextRunner
+                .withBean("dataSource", DataSource.class, () -> Mockito.mock(DataSource.class))
+                .run(context -> assertThat(context.getBean("dataSource")).isInstanceOf(BoundedDataSource.class));
+    }
+
+    @Test
+    @DisplayName("Из нескольких DataSource оборачивается только @Primary, пулы за ним — нет")
+    void primaryDataSourceOnly() {
+        contextRunner
+                .withBean("primaryDataSource", DataSource.class, () -> Mockito.mock(DataSource.class))
+                .withBean("replicaDataSource", DataSource.class, () -> Mockito.mock(DataSource.class))
+                .withBean("dataSource", DataSource.class, () -> Mockito.mock(DataSource.class),
+                        definition -> definition.setPrimary(true))
+                .run(context -> {
+                    assertThat(context.getBean("dataSource")).isInstanceOf(BoundedDataSource.class);
+                    assertThat(context.getBean("primaryDataSource")).isNotInstanceOf(BoundedDataSource.class);
+                    assertThat(context.getBean("replicaDataSource")).isNotInstanceOf(BoundedDataSource.class);
+                });
+    }
+}
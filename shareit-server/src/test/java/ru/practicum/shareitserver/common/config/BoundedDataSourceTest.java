@@ -0,0 +1,62 @@
+package ru.practicum.shareitserver.common.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@ExtendWith(MockitoExtension.class)
+class BoundedDataSourceTest {
+
+    @Mock
+    DataSource mockDataSource;
+
+    @Mock
+    Connection mockConnection;
+
+    BoundedDataSource boundedDataSource;
+
+    @BeforeEach
+    void setUp() {
+        boundedDataSource = new BoundedDataSource(mockDataSource, 1, Duration.ofMillis(50));
+    }
+
+    @Test
+    @DisplayName("Соединение сверх лимита не выдаётся, пока не закрыто предыдущее")
+    void getConnectionOverLimit() throws SQLException {
+        Mockito.when(mockDataSource.getConnection()).thenReturn(mockConnection);
+
+        Connection connection = boundedDataSource.getConnection();
+        assertThrows(SQLTransientConnectionException.class, () -> boundedDataSource.getConnection());
+
+        connection.close();
+        connection.close();
+        assertThat(boundedDataSource.availablePermits(), equalTo(1));
+        Mockito.verify(mockConnection, Mockito.times(1)).close();
+
+        boundedDataSource.getConnection();
+        assertThat(boundedDataSource.availablePermits(), equalTo(0));
+    }
+
+    @Test
+    @DisplayName("Ошибка получения соединения возвращает разрешение")
+    void getConnectionFailure() throws SQLException {
+        Mockito.when(mockDataSource.getConnection()).thenThrow(new SQLException("нет соединения"));
+
+        assertThrows(SQLException.class, () -> boundedDataSource.getConnection());
+        assertThat(boundedDataSource.availablePermits(), equalTo(1));
+    }
+}
@@ -0,0 +1,132 @@
+package ru.practicum.shareitserver.integration;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareitserver.booking.Status;
+import ru.practicum.shareitserver.booking.model.entity.Booking;
+import ru.practicum.shareitserver.item.model.entity.Comment;
+import ru.practicum.shareitserver.item.model.entity.Item;
+import ru.practicum.shareitserver.requests.model.entity.ItemRequest;
+import ru.practicum.shareitserver.user.model.entity.User;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareitserver.common.Constants.X_SHARER_USER_ID;
+import static ru.practicum.shareitserver.integration.QueryCounter.expectQueries;
+
+/**
+ * Бюджеты SQL-запросов для страниц API на большом наборе данных: число запросов не должно зависеть
+ * от числа вещей, бронирований, отзывов и запросов на странице.
+ */
+@Transactional
+@AutoConfigureMockMvc
+@Import(QueryCounter.class)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@SpringBootTest(properties = "db.name=test")
+public class QueryBudgetTest {
+    private static final int USERS = 10;
+    private static final int ITEMS = 60;
+    private static final int PAGE = 20;
+
+    private final MockMvc mvc;
+    private final EntityManager em;
+
+    private User owner;
+    private final List<User> users = new ArrayList<>();
+    private final List<Item> items = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        owner = new User(null, "Owner", "owner_budget@mail.ru");
+        em.persist(owner);
+        for (int i = 0; i < USERS; i++) {
+            User user = new User(null, "User" + i, "user" + i + "_budget@mail.ru");
+            em.persist(user);
+            users.add(user);
+        }
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        for (int i = 0; i < ITEMS; i++) {
+            User user = users.get(i % USERS);
+            ItemRequest request = new ItemRequest(null, "Нужна вещь " + i, user, now.minusDays(10).plusMinutes(i));
+            em.persist(request);
+            Item item = new Item(null, "Вещь " + i, "Описание " + i, true, owner, request);
+            em.persist(item);
+            items.add(item);
+            User booker = users.get((i + 1) % USERS);
+            em.persist(new Booking(null, now.minusDays(5), now.minusDays(4), item, booker, Status.APPROVED));
+            em.persist(new Booking(null, now.plusDays(4), now.plusDays(5), item, booker, Status.APPROVED));
+            em.persist(new Booking(null, now.plusDays(6), now.plusDays(7), item, user, Status.WAITING));
+            em.persist(new Comment(null, "Отзыв " + i, item, booker, now.minusDays(3)));
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    @DisplayName("Страница вещей владельца с бронированиями и отзывами")
+    void getItems() throws Exception {
+        mvc.perform(get("/items")
+                        .header(X_SHARER_USER_ID, owner.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(PAGE)))
+                .andExpect(jsonPath("$[0].comments", hasSize(1)))
+                .andExpect(expectQueries(3));
+    }
+
+    @Test
+    @DisplayName("Вещь с последним и следующим бронированием и отзывами")
+    void getItemById() throws Exception {
+        mvc.perform(get("/items/{itemId}", items.get(0).getId())
+                        .header(X_SHARER_USER_ID, owner.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.comments", hasSize(1)))
+                .andExpect(expectQueries(5));
+    }
+
+    @Test
+    @DisplayName("Страница бронирований вещей владельца")
+    void getBookingsByOwner() throws Exception {
+        mvc.perform(get("/bookings/owner")
+                        .header(X_SHARER_USER_ID, owner.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(PAGE)))
+                .andExpect(expectQueries(2));
+    }
+
+    @Test
+    @DisplayName("Страница чужих запросов с ответами")
+    void getItemRequestsAll() throws Exception {
+        mvc.perform(get("/requests/all")
+                        .header(X_SHARER_USER_ID, owner.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(PAGE)))
+                .andExpect(jsonPath("$[0].items", hasSize(1)))
+                .andExpect(expectQueries(3));
+    }
+
+    @Test
+    @DisplayName("Свои запросы с ответами")
+    void getItemRequests() throws Exception {
+        mvc.perform(get("/requests")
+                        .header(X_SHARER_USER_ID, users.get(0).getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(ITEMS / USERS)))
+                .andExpect(expectQueries(3));
+    }
+}
@@ -0,0 +1,128 @@
+package ru.practicum.shareitserver.integration;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.web.servlet.MockMvcBuilderCustomizer;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Учёт SQL-запросов за один MockMvc-вызов: DataSource оборачивается datasource-proxy, запросы потока
+ * записываются, пока запрос проходит фильтр. Подключается через @Import(QueryCounter.class)
+ * вместе с @AutoConfigureMockMvc, бюджет проверяется матчером expectQueries.
+ * Без MockMvc запросы произвольного кода с параметрами возвращает capture.
+ */
+@TestConfiguration
+public class QueryCounter {
+    private static final String QUERIES = QueryCounter.class.getName() + ".queries";
+    private static final ThreadLocal<List<List<QueryInfo>>> RECORDED = new ThreadLocal<>();
+
+    /**
+     * SQL-запросы с параметрами, выполненные в текущем потоке во время action, по порядку.
+     */
+    public static List<QueryInfo> capture(Runnable action) {
+        List<List<QueryInfo>> executions = new ArrayList<>();
+        RECORDED.set(executions);
+        try {
+            action.run();
+        } finally {
+            RECORDED.remove();
+        }
+        return executions.stream()
+                .flatMap(List::stream)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Не больше max запросов к БД (пакет JDBC считается одним запросом); иначе — ошибка со списком SQL.
+     */
+    public static ResultMatcher expectQueries(int max) {
+        return result -> {
+            @SuppressWarnings("unchecked")
+            List<String> queries = (List<String>) result.getRequest().getAttribute(QUERIES);
+            if (queries == null) {
+                throw new AssertionError("Запросы не учтены: нет @Import(QueryCounter.class) и @AutoConfigureMockMvc");
+            }
+            if (queries.size() > max) {
+                throw new AssertionError(String.format("Ожидалось не больше %d SQL-запросов, выполнено %d:%n%s",
+                        max, queries.size(), String.join(System.lineSeparator(), queries)));
+            }
+        };
+    }
+
+    @Bean
+    public static BeanPostProcessor queryCountingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create((DataSource) bean)
+                            .name(beanName)
+                            .listener(new RecordingListener())
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public MockMvcBuilderCustomizer queryCountingMockMvcCustomizer() {
+        return builder -> builder.addFilters(new OncePerRequestFilter() {
+            @Override
+            protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                            FilterChain filterChain) throws ServletException, IOException {
+                List<List<QueryInfo>> executions = new ArrayList<>();
+                RECORDED.set(executions);
+                try {
+                    filterChain.doFilter(request, response);
+                } finally {
+                    RECORDED.remove();
+                    request.setAttribute(QUERIES, executions.stream()
+                            .map(execution -> execution.stream()
+                                    .map(QueryInfo::getQuery)
+                                    .collect(Collectors.joining("; ")))
+                            .collect(Collectors.toList()));
+                }
+            }
+        });
+    }
+
+    private static final class RecordingListener implements QueryExecutionListener {
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            List<List<QueryInfo>> executions = RECORDED.get();
+            if (executions != null) {
+                executions.add(queryInfoList.stream()
+                        .map(RecordingListener::copy)
+                        .collect(Collectors.toList()));
+            }
+        }
+
+        private static QueryInfo copy(QueryInfo queryInfo) {
+            QueryInfo copy = new QueryInfo(queryInfo.getQuery());
+            queryInfo.getParametersList().forEach(parameters -> copy.getParametersList().add(new ArrayList<>(parameters)));
+            return copy;
+        }
+    }
+}
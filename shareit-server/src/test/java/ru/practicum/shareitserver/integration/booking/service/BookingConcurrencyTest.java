@@ -0,0 +1,159 @@
+package ru.practicum.shareitserver.integration.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareitserver.booking.model.entity.Booking;
+import ru.practicum.shareitserver.booking.service.BookingService;
+import ru.practicum.shareitserver.common.exception.BadRequestException;
+import ru.practicum.shareitserver.item.model.entity.Item;
+import ru.practicum.shareitserver.user.model.entity.User;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Параллельное бронирование одной вещи: транзакции не откатываются, поэтому данные удаляются после каждого теста.
+ */
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@SpringBootTest(properties = "db.name=test", webEnvironment = SpringBootTest.WebEnvironment.NONE)
+public class BookingConcurrencyTest {
+    private static final int THREADS = 8;
+    private static final int ATTEMPTS = 64;
+
+    private final EntityManager em;
+    private final TransactionTemplate transactionTemplate;
+    private final BookingService service;
+
+    private long itemId;
+    private final List<Long> bookerIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate.executeWithoutResult(status -> {
+            User owner = new User(null, "Maria", "maria_concurrent@mail.ru");
+            em.persist(owner);
+            Item item = new Item(null, "Дрель", "горячая вещь", true, owner, null);
+            em.persist(item);
+            itemId = item.getId();
+            for (int i = 0; i < THREADS; i++) {
+                User booker = new User(null, "Booker" + i, "booker" + i + "_concurrent@mail.ru");
+                em.persist(booker);
+                bookerIds.add(booker.getId());
+            }
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(status -> {
+            em.createQuery("delete from Booking b where b.item.id = :itemId")
+                    .setParameter("itemId", itemId)
+                    .executeUpdate();
+            Item item = em.find(Item.class, itemId);
+            long ownerId = item.getOwner().getId();
+            em.remove(item);
+            em.flush();
+            em.createQuery("delete from User u where u.id in :ids or u.id = :ownerId")
+                    .setParameter("ids", bookerIds)
+                    .setParameter("ownerId", ownerId)
+                    .executeUpdate();
+        });
+    }
+
+    @Test
+    @DisplayName("Из параллельных бронирований одного интервала проходит только одно")
+    void addBookingSameInterval() throws Exception {
+        //GIVEN
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        LocalDateTime end = start.plusDays(1);
+
+        //WHEN
+        List<Boolean> results = bookConcurrently(attempt -> new Booking(null, start, end, null, null, null));
+
+        //THEN
+        assertThat(results.stream().filter(Boolean::booleanValue).count(), equalTo(1L));
+        assertThat(findBookings(), hasSize(1));
+    }
+
+    @Test
+    @DisplayName("Параллельные бронирования пересекающихся интервалов не пересекаются в БД")
+    void addBookingOverlappingIntervals() throws Exception {
+        //GIVEN
+        LocalDateTime base = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+
+        //WHEN
+        List<Boolean> results = bookConcurrently(attempt -> new Booking(null,
+                base.plusHours(attempt % 16), base.plusHours(attempt % 16 + 3), null, null, null));
+
+        //THEN
+        List<Booking> bookings = findBookings();
+        assertThat(bookings, hasSize((int) results.stream().filter(Boolean::booleanValue).count()));
+        assertThat(bookings, not(empty()));
+        for (int i = 1; i < bookings.size(); i++) {
+            assertThat(bookings.get(i).getStart(), greaterThanOrEqualTo(bookings.get(i - 1).getEnd()));
+        }
+    }
+
+    /**
+     * ATTEMPTS попыток бронирования в THREADS потоках, стартующих одновременно; true — бронирование создано.
+     */
+    private List<Boolean> bookConcurrently(BookingFactory factory) throws InterruptedException, ExecutionException {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch startGate = new CountDownLatch(1);
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (int i = 0; i < ATTEMPTS; i++) {
+                int attempt = i;
+                long bookerId = bookerIds.get(i % THREADS);
+                Callable<Boolean> task = () -> {
+                    startGate.await();
+                    try {
+                        service.addBooking(bookerId, itemId, factory.make(attempt));
+                        return true;
+                    } catch (BadRequestException e) {
+                        return false;
+                    }
+                };
+                futures.add(executor.submit(task));
+            }
+            startGate.countDown();
+            List<Boolean> results = new ArrayList<>();
+            for (Future<Boolean> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private List<Booking> findBookings() {
+        return transactionTemplate.execute(status -> em.createQuery(
+                        "select b from Booking b where b.item.id = :itemId order by b.start", Booking.class)
+                .setParameter("itemId", itemId)
+                .getResultList());
+    }
+
+    @FunctionalInterface
+    private interface BookingFactory {
+        Booking make(int attempt);
+    }
+}
@@ -1,19 +1,36 @@
 package ru.practicum.shareitserver.integration.booking.service;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Slice;
+import ru.practicum.shareitserver.booking.BookingPhase;
 import ru.practicum.shareitserver.booking.BookingState;
 import ru.practicum.shareitserver.booking.Status;
 import ru.practicum.shareitserver.booking.mapper.BookingMapper;
+import ru.practicum.shareitserver.booking.model.BookingStatusResult;
+import ru.practicum.shareitserver.booking.model.BookingView;
+import ru.practicum.shareitserver.booking.model.ItemBookings;
+import ru.practicum.shareitserver.booking.model.dto.BookingBatchRequestDto;
 import ru.practicum.shareitserver.booking.model.dto.BookingRequestDto;
+import ru.practicum.shareitserver.booking.model.dto.BookingResponseDto;
 import ru.practicum.shareitserver.booking.model.entity.Booking;
+import ru.practicum.shareitserver.booking.service.BookingExpiryJob;
 import ru.practicum.shareitserver.booking.service.BookingService;
+import ru.practicum.shareitserver.common.exception.BadRequestException;
+import ru.practicum.shareitserver.common.model.Cursor;
 import ru.practicum.shareitserver.item.mapper.ItemMapper;
 import ru.practicum.shareitserver.item.model.dto.ItemDto;
 import ru.practicum.shareitserver.item.model.entity.Item;
+import ru.practicum.shareitserver.requests.model.entity.ItemRequest;
 import ru.practicum.shareitserver.user.mapper.UserMapper;
 import ru.practicum.shareitserver.user.model.dto.UserDto;
 import ru.practicum.shareitserver.user.model.entity.User;
@@ -22,20 +39,26 @@ import javax.persistence.EntityManager;
 import javax.persistence.TypedQuery;
 import javax.transaction.Transactional;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 
+@Slf4j
 @Transactional
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
 @SpringBootTest(
-        properties = "db.name=test",
+        properties = {"db.name=test", "spring.jpa.properties.hibernate.generate_statistics=true"},
         webEnvironment = SpringBootTest.WebEnvironment.NONE)
 public class BookingServiceImplTest {
 
     private final EntityManager em;
     private final BookingService service;
+    private final BookingExpiryJob bookingExpiryJob;
 
     @Test
     @DisplayName("Получение бронирования вещей пользователя со state WAITING")
@@ -83,7 +106,7 @@ public class BookingServiceImplTest {
         item4 = queryItem.setParameter("name", "Косметика").getSingleResult();
 
         //Создание бронирования
-        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
         Booking booking1 = BookingMapper.toBooking(makeBookingRequestDto(now.plusDays(1), now.plusDays(2), item1.getId()));
         setBookingParams(booking1, booker, item1, Status.WAITING);
         em.persist(booking1);
@@ -101,7 +124,7 @@ public class BookingServiceImplTest {
         List<Booking> sourceBookings = List.of(booking1, booking3);
 
         //WHEN
-        List<Booking> targetBookings = service.getBookingsByOwnerId(owner1.getId(), BookingState.WAITING, 0, 20);
+        List<BookingView> targetBookings = service.getBookingsByOwnerId(owner1.getId(), BookingState.WAITING, 0, 20);
 
         //THEN
         assertThat(targetBookings, hasSize(sourceBookings.size()));
@@ -110,17 +133,348 @@ public class BookingServiceImplTest {
                     hasProperty("id", notNullValue()),
                     hasProperty("start", equalTo(sourceBooking.getStart())),
                     hasProperty("end", equalTo(sourceBooking.getEnd())),
-                    hasProperty("item", allOf(
-                            hasProperty("id", equalTo(sourceBooking.getItem().getId()))
-                    )),
-                    hasProperty("booker", allOf(
-                            hasProperty("id", equalTo(sourceBooking.getBooker().getId()))
-                    )),
+                    hasProperty("itemId", equalTo(sourceBooking.getItem().getId())),
+                    hasProperty("bookerId", equalTo(sourceBooking.getBooker().getId())),
                     hasProperty("status", equalTo(sourceBooking.getStatus()))
             )));
         }
     }
 
+    @ParameterizedTest(name = "{0} вещей")
+    @ValueSource(ints = {10, 1_000, 10_000})
+    @DisplayName("Количество запросов и время получения бронирований владельца не зависят от числа его вещей")
+    void getBookingsByOwnerIdQueryCount(int itemCount) {
+        //GIVEN
+        User owner = UserMapper.toUser(makeUserDto("Maria", "maria_smart@mail.ru"));
+        em.persist(owner);
+        User booker = UserMapper.toUser(makeUserDto("Ivan", "ivan_humble@mail.ru"));
+        em.persist(booker);
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        for (int i = 0; i < itemCount; i++) {
+            Item item = ItemMapper.toItem(makeItemDto("Вещь" + i, "описание" + i, true));
+            item.setOwner(owner);
+            em.persist(item);
+            Booking booking = BookingMapper.toBooking(
+                    makeBookingRequestDto(now.plusMinutes(i + 1), now.plusMinutes(i + 2), item.getId()));
+            setBookingParams(booking, booker, item, Status.WAITING);
+            em.persist(booking);
+        }
+        em.flush();
+        em.clear();
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        //WHEN
+        long startNanos = System.nanoTime();
+        List<BookingView> targetBookings = service.getBookingsByOwnerId(owner.getId(), BookingState.ALL, 0, 20);
+        long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+
+        //THEN
+        long queryCount = statistics.getPrepareStatementCount();
+        log.info("Бронирования владельца с {} вещами: запросов={}, время={} мс", itemCount, queryCount, elapsedMillis);
+        assertThat(targetBookings, hasSize(Math.min(itemCount, 20)));
+        assertThat(targetBookings.get(0).getStart(), equalTo(now.plusMinutes(itemCount)));
+        assertThat(queryCount, lessThanOrEqualTo(3L));
+    }
+
+    @Test
+    @DisplayName("Страница из 100 бронирований с вещами, запросами и авторами — один запрос и проверка владельца")
+    void getBookingsByOwnerIdPageQueryCount() {
+        //GIVEN
+        User owner = UserMapper.toUser(makeUserDto("Maria", "maria_smart@mail.ru"));
+        em.persist(owner);
+        User requestor = UserMapper.toUser(makeUserDto("Daria", "daria_funny@mail.ru"));
+        em.persist(requestor);
+        List<User> bookers = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            User booker = UserMapper.toUser(makeUserDto("Booker" + i, "booker" + i + "@mail.ru"));
+            em.persist(booker);
+            bookers.add(booker);
+        }
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        for (int i = 0; i < 100; i++) {
+            ItemRequest request = new ItemRequest(null, "нужна вещь" + i, requestor, now);
+            em.persist(request);
+            Item item = ItemMapper.toItem(makeItemDto("Вещь" + i, "описание" + i, true));
+            item.setOwner(owner);
+            item.setRequest(request);
+            em.persist(item);
+            persistBooking(bookers.get(i % bookers.size()), item, now.plusMinutes(i + 1), now.plusMinutes(i + 2),
+                    Status.WAITING);
+        }
+        em.flush();
+        em.clear();
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        //WHEN
+        List<BookingResponseDto> targetBookings = BookingMapper.toBookingViewDtoList(
+                service.getBookingsByOwnerId(owner.getId(), BookingState.ALL, 0, 100));
+
+        //THEN
+        assertThat(targetBookings, hasSize(100));
+        assertThat(targetBookings, everyItem(allOf(
+                hasProperty("item", hasProperty("requestId", notNullValue())),
+                hasProperty("booker", hasProperty("email", notNullValue())))));
+        assertThat(statistics.getPrepareStatementCount(), lessThanOrEqualTo(2L));
+        assertThat(statistics.getEntityLoadCount(), equalTo(0L));
+    }
+
+    @Test
+    @DisplayName("Постраничная выдача бронирований владельца по курсору без пропусков и повторов")
+    void getBookingsByOwnerIdWithCursor() {
+        //GIVEN
+        User owner = UserMapper.toUser(makeUserDto("Maria", "maria_smart@mail.ru"));
+        em.persist(owner);
+        User booker = UserMapper.toUser(makeUserDto("Ivan", "ivan_humble@mail.ru"));
+        em.persist(booker);
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        List<Booking> sourceBookings = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            Item item = ItemMapper.toItem(makeItemDto("Вещь" + i, "описание" + i, true));
+            item.setOwner(owner);
+            em.persist(item);
+            //У каждой пары бронирований одинаковая дата начала
+            Booking booking = BookingMapper.toBooking(
+                    makeBookingRequestDto(now.plusMinutes(i / 2 + 1), now.plusMinutes(i / 2 + 2), item.getId()));
+            setBookingParams(booking, booker, item, Status.WAITING);
+            em.persist(booking);
+            sourceBookings.add(booking);
+        }
+        em.flush();
+        em.clear();
+        List<Long> expectedIds = sourceBookings.stream()
+                .sorted(Comparator.comparing(Booking::getStart).thenComparing(Booking::getId).reversed())
+                .map(Booking::getId)
+                .collect(Collectors.toList());
+
+        //WHEN
+        List<Long> targetIds = new ArrayList<>();
+        Cursor cursor = null;
+        int pages = 0;
+        do {
+            Slice<BookingView> slice = service.getBookingsByOwnerId(owner.getId(), BookingState.ALL, cursor, 7);
+            slice.forEach(booking -> targetIds.add(booking.getId()));
+            String next = Cursor.next(slice, booking -> Cursor.of(booking.getStart(), booking.getId()));
+            cursor = next == null ? null : Cursor.decode(next, Cursor.Kind.START_AND_ID);
+            pages++;
+        } while (cursor != null);
+
+        //THEN
+        assertThat(pages, equalTo(8));
+        assertThat(targetIds, equalTo(expectedIds));
+    }
+
+    @Test
+    @DisplayName("Последние и ближайшие бронирования набора вещей одним запросом")
+    void getBookingsByItemIds() {
+        //GIVEN
+        User owner = UserMapper.toUser(makeUserDto("Maria", "maria_smart@mail.ru"));
+        em.persist(owner);
+        User booker = UserMapper.toUser(makeUserDto("Ivan", "ivan_humble@mail.ru"));
+        em.persist(booker);
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Item item = ItemMapper.toItem(makeItemDto("Вещь" + i, "описание" + i, true));
+            item.setOwner(owner);
+            em.persist(item);
+            items.add(item);
+        }
+        persistBooking(booker, items.get(0), now.minusDays(4), now.minusDays(3));
+        Booking lastPast = persistBooking(booker, items.get(0), now.minusDays(2), now.minusDays(1));
+        Booking nextFuture = persistBooking(booker, items.get(0), now.plusDays(1), now.plusDays(2));
+        persistBooking(booker, items.get(0), now.plusDays(3), now.plusDays(4));
+        Booking onlyPast = persistBooking(booker, items.get(1), now.minusDays(2), now.minusDays(1));
+        em.flush();
+        em.clear();
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        //WHEN
+        ItemBookings target = service.getBookingsByItemIds(
+                items.stream().map(Item::getId).collect(Collectors.toList()));
+
+        //THEN
+        assertThat(statistics.getPrepareStatementCount(), equalTo(1L));
+        assertThat(target.getLastBooking(items.get(0).getId()).getId(), equalTo(lastPast.getId()));
+        assertThat(target.getNextBooking(items.get(0).getId()).getId(), equalTo(nextFuture.getId()));
+        assertThat(target.getLastBooking(items.get(1).getId()).getId(), equalTo(onlyPast.getId()));
+        assertThat(target.getNextBooking(items.get(1).getId()), nullValue());
+        assertThat(target.getLastBooking(items.get(2).getId()), nullValue());
+        assertThat(target.getNextBooking(items.get(2).getId()), nullValue());
+    }
+
+    @Test
+    @DisplayName("Массовое подтверждение бронирований: проверка владельца одним запросом и один UPDATE")
+    void updateBookingStatuses() {
+        //GIVEN
+        User owner = UserMapper.toUser(makeUserDto("Maria", "maria_smart@mail.ru"));
+        em.persist(owner);
+        User booker = UserMapper.toUser(makeUserDto("Ivan", "ivan_humble@mail.ru"));
+        em.persist(booker);
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        Item item = ItemMapper.toItem(makeItemDto("Магнит", "сувенир", true));
+        item.setOwner(owner);
+        em.persist(item);
+        Item foreignItem = ItemMapper.toItem(makeItemDto("Дрель", "инструмент", true));
+        foreignItem.setOwner(booker);
+        em.persist(foreignItem);
+        Booking waiting1 = persistBooking(booker, item, now.plusDays(1), now.plusDays(2), Status.WAITING);
+        Booking waiting2 = persistBooking(booker, item, now.plusDays(3), now.plusDays(4), Status.WAITING);
+        Booking approved = persistBooking(booker, item, now.plusDays(5), now.plusDays(6), Status.APPROVED);
+        Booking foreign = persistBooking(owner, foreignItem, now.plusDays(1), now.plusDays(2), Status.WAITING);
+        em.flush();
+        em.clear();
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        List<Long> ids = List.of(waiting1.getId(), approved.getId(), foreign.getId(), waiting2.getId(), -1L);
+
+        //WHEN
+        List<BookingStatusResult> results = service.updateBookingStatuses(owner.getId(), ids, true);
+
+        //THEN
+        assertThat(statistics.getPrepareStatementCount(), equalTo(3L));
+        assertThat(results.stream().map(BookingStatusResult::getBookingId).collect(Collectors.toList()), equalTo(ids));
+        assertThat(results.stream().map(BookingStatusResult::isUpdated).collect(Collectors.toList()),
+                contains(true, false, false, true, false));
+        assertThat(results.get(1).getStatus(), equalTo(Status.APPROVED));
+        assertThat(results.get(2).getStatus(), nullValue());
+        assertThat(em.find(Booking.class, waiting1.getId()).getStatus(), equalTo(Status.APPROVED));
+        assertThat(em.find(Booking.class, waiting2.getId()).getStatus(), equalTo(Status.APPROVED));
+        assertThat(em.find(Booking.class, foreign.getId()).getStatus(), equalTo(Status.WAITING));
+    }
+
+    @Test
+    @DisplayName("Бронирования вещей пользователя по фазам PAST, CURRENT и FUTURE")
+    void getBookingsByOwnerIdInPhase() {
+        //GIVEN
+        User owner = UserMapper.toUser(makeUserDto("Maria", "maria_smart@mail.ru"));
+        em.persist(owner);
+        User booker = UserMapper.toUser(makeUserDto("Ivan", "ivan_humble@mail.ru"));
+        em.persist(booker);
+        Item item = ItemMapper.toItem(makeItemDto("Палатка", "туристическая", true));
+        item.setOwner(owner);
+        em.persist(item);
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        Booking past = persistBooking(booker, item, now.minusDays(3), now.minusDays(2));
+        Booking current = persistBooking(booker, item, now.minusDays(1), now.plusDays(1));
+        Booking future = persistBooking(booker, item, now.plusDays(2), now.plusDays(3));
+        em.flush();
+
+        //WHEN
+        List<BookingView> pastBookings = service.getBookingsByOwnerId(owner.getId(), BookingState.PAST, 0, 10);
+        List<BookingView> currentBookings = service.getBookingsByOwnerId(owner.getId(), BookingState.CURRENT, 0, 10);
+        Slice<BookingView> futureBookings = service.getBookingsByOwnerId(owner.getId(), BookingState.FUTURE, (Cursor) null, 10);
+
+        //THEN
+        assertThat(pastBookings, contains(hasProperty("id", equalTo(past.getId()))));
+        assertThat(currentBookings, contains(hasProperty("id", equalTo(current.getId()))));
+        assertThat(futureBookings.getContent(), contains(hasProperty("id", equalTo(future.getId()))));
+    }
+
+    @Test
+    @DisplayName("Ожидающие бронирования, начало которых прошло, отклоняются")
+    void expireWaitingBookings() {
+        //GIVEN
+        User owner = UserMapper.toUser(makeUserDto("Maria", "maria_smart@mail.ru"));
+        em.persist(owner);
+        User booker = UserMapper.toUser(makeUserDto("Ivan", "ivan_humble@mail.ru"));
+        em.persist(booker);
+        Item item = ItemMapper.toItem(makeItemDto("Палатка", "туристическая", true));
+        item.setOwner(owner);
+        em.persist(item);
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        Booking started = persistBooking(booker, item, now.minusDays(1), now.plusDays(1), Status.WAITING);
+        Booking approved = persistBooking(booker, item, now.minusDays(3), now.minusDays(2), Status.APPROVED);
+        Booking future = persistBooking(booker, item, now.plusDays(2), now.plusDays(3), Status.WAITING);
+        em.flush();
+
+        //WHEN
+        int expired = bookingExpiryJob.expire(now);
+
+        //THEN
+        assertThat(expired, equalTo(1));
+        assertThat(em.find(Booking.class, started.getId()).getStatus(), equalTo(Status.REJECTED));
+        assertThat(em.find(Booking.class, approved.getId()).getStatus(), equalTo(Status.APPROVED));
+        assertThat(em.find(Booking.class, future.getId()).getStatus(), equalTo(Status.WAITING));
+    }
+
+    @Test
+    @DisplayName("Пакетное добавление бронирований вставляет все бронирования одним пакетом")
+    void addBookings() {
+        //GIVEN
+        User owner = UserMapper.toUser(makeUserDto("Maria", "maria_smart@mail.ru"));
+        em.persist(owner);
+        User booker = UserMapper.toUser(makeUserDto("Ivan", "ivan_humble@mail.ru"));
+        em.persist(booker);
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        List<BookingRequestDto> requests = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Item item = ItemMapper.toItem(makeItemDto("Вещь" + i, "описание" + i, true));
+            item.setOwner(owner);
+            em.persist(item);
+            requests.add(makeBookingRequestDto(now.plusDays(1), now.plusDays(2), item.getId()));
+        }
+        em.flush();
+
+        //WHEN
+        List<Booking> bookings = service.addBookings(booker.getId(),
+                BookingMapper.toBookingList(new BookingBatchRequestDto(requests)));
+
+        //THEN
+        assertThat(bookings, hasSize(3));
+        for (int i = 0; i < bookings.size(); i++) {
+            Booking saved = em.find(Booking.class, bookings.get(i).getId());
+            assertThat(saved.getItem().getId(), equalTo(requests.get(i).getItemId()));
+            assertThat(saved.getBooker().getId(), equalTo(booker.getId()));
+            assertThat(saved.getStatus(), equalTo(Status.WAITING));
+            assertThat(saved.getStart(), equalTo(requests.get(i).getStart()));
+            assertThat(saved.getPhase(), equalTo(BookingPhase.FUTURE));
+        }
+    }
+
+    @Test
+    @DisplayName("Пакетное добавление бронирований с недоступной вещью не создаёт ни одного")
+    void addBookingsWithUnavailableItem() {
+        //GIVEN
+        User owner = UserMapper.toUser(makeUserDto("Maria", "maria_smart@mail.ru"));
+        em.persist(owner);
+        User booker = UserMapper.toUser(makeUserDto("Ivan", "ivan_humble@mail.ru"));
+        em.persist(booker);
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        Item available = ItemMapper.toItem(makeItemDto("Палатка", "туристическая", true));
+        available.setOwner(owner);
+        em.persist(available);
+        Item unavailable = ItemMapper.toItem(makeItemDto("Примус", "туристический", false));
+        unavailable.setOwner(owner);
+        em.persist(unavailable);
+        em.flush();
+        List<BookingRequestDto> requests = List.of(
+                makeBookingRequestDto(now.plusDays(1), now.plusDays(2), available.getId()),
+                makeBookingRequestDto(now.plusDays(1), now.plusDays(2), unavailable.getId()));
+
+        //WHEN
+        Assertions.assertThrows(BadRequestException.class, () -> service.addBookings(booker.getId(),
+                BookingMapper.toBookingList(new BookingBatchRequestDto(requests))));
+
+        //THEN
+        assertThat(em.createQuery("select count(b) from Booking b where b.booker.id = :bookerId", Long.class)
+                .setParameter("bookerId", booker.getId())
+                .getSingleResult(), equalTo(0L));
+    }
+
+    private Booking persistBooking(User booker, Item item, LocalDateTime start, LocalDateTime end) {
+        return persistBooking(booker, item, start, end, Status.APPROVED);
+    }
+
+    private Booking persistBooking(User booker, Item item, LocalDateTime start, LocalDateTime end, Status status) {
+        Booking booking = BookingMapper.toBooking(makeBookingRequestDto(start, end, item.getId()));
+        setBookingParams(booking, booker, item, status);
+        em.persist(booking);
+        return booking;
+    }
+
     private void setBookingParams(Booking booking1, User booker, Item item1, Status status) {
         booking1.setBooker(booker);
         booking1.setItem(item1);
@@ -0,0 +1,48 @@
+package ru.practicum.shareitserver.integration.common.config;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMetrics
+@AutoConfigureMockMvc
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@SpringBootTest(properties = {"db.name=test", "spring.jpa.properties.hibernate.generate_statistics=true"})
+public class PrometheusMetricsTest {
+    private final MockMvc mvc;
+
+    @Test
+    @DisplayName("После запроса к API в /actuator/prometheus есть его время, методы сервиса и репозитория и запросы к БД")
+    void scrape() throws Exception {
+        mvc.perform(get("/users"))
+                .andExpect(status().isOk());
+
+        mvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("http_server_requests_seconds_bucket{")))
+                .andExpect(content().string(matchesPattern(
+                        "(?s).*spring_data_repository_invocations_seconds_count\\{[^}]*method=\"findAll\""
+                                + "[^}]*repository=\"UserRepository\"[^}]*} 1\\.0.*")))
+                .andExpect(content().string(matchesPattern(
+                        "(?s).*shareit_service_seconds_count\\{[^}]*class=\"[^\"]*UserServiceImpl\""
+                                + "[^}]*method=\"getUsers\"[^}]*} 1\\.0.*")))
+                .andExpect(content().string(matchesPattern(
+                        "(?s).*hibernate_request_statements_sum\\{[^}]*uri=\"/users\"[^}]*} [1-9].*")))
+                .andExpect(content().string(matchesPattern(
+                        "(?s).*hibernate_request_entity_loads_count\\{[^}]*uri=\"/users\"[^}]*} 1\\.0.*")))
+                .andExpect(content().string(containsString("hikaricp_connections_active{")))
+                .andExpect(content().string(containsString("hibernate_statements_total{")))
+                .andExpect(content().string(containsString("jvm_gc_")));
+    }
+}
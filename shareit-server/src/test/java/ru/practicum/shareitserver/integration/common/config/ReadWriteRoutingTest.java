@@ -0,0 +1,113 @@
+package ru.practicum.shareitserver.integration.common.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareitserver.item.model.dto.ItemDto;
+import ru.practicum.shareitserver.user.model.entity.User;
+
+import javax.persistence.EntityManager;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareitserver.common.Constants.X_SHARER_USER_ID;
+
+/**
+ * Профиль replica на двух независимых H2: реплика не получает записей основной БД,
+ * поэтому по видимости данных видно, куда ушло чтение. Данные удаляются после каждого теста.
+ */
+@AutoConfigureMockMvc
+@ActiveProfiles({"test", "replica"})
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@SpringBootTest(properties = {"db.name=test", "shareit.datasource.replica-sticky-for=1h"})
+public class ReadWriteRoutingTest {
+    private static final String NAME = "Перфоратор реплики";
+
+    private final MockMvc mvc;
+    private final ObjectMapper mapper;
+    private final EntityManager em;
+    private final PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private TransactionTemplate readOnlyTransactionTemplate;
+    private long ownerId;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTransactionTemplate.setReadOnly(true);
+        ownerId = transactionTemplate.execute(status -> {
+            User owner = new User(null, "Maria", "maria_replica@mail.ru");
+            em.persist(owner);
+            return owner.getId();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(status -> {
+            em.createQuery("delete from Item i where i.owner.id = :ownerId")
+                    .setParameter("ownerId", ownerId)
+                    .executeUpdate();
+            em.createQuery("delete from User u where u.id = :ownerId")
+                    .setParameter("ownerId", ownerId)
+                    .executeUpdate();
+        });
+    }
+
+    @Test
+    @DisplayName("Транзакция только для чтения идёт в реплику, пишущая — в основную БД")
+    void readOnlyTransactionUsesReplica() {
+        assertThat(readOnlyTransactionTemplate.execute(status -> countOwners()), equalTo(0L));
+        assertThat(transactionTemplate.execute(status -> countOwners()), equalTo(1L));
+    }
+
+    @Test
+    @DisplayName("После записи пользователь читает свои изменения с основной БД")
+    void readYourWrites() throws Exception {
+        ItemDto itemDto = new ItemDto(null, NAME, "после записи", true, null);
+        mvc.perform(post("/items")
+                        .header(X_SHARER_USER_ID, ownerId)
+                        .content(mapper.writeValueAsString(itemDto))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        mvc.perform(get("/items/search")
+                        .header(X_SHARER_USER_ID, ownerId)
+                        .param("text", NAME))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].name", is(NAME)));
+        assertThat(readOnlyTransactionTemplate.execute(status -> countItems()), equalTo(0L));
+    }
+
+    private long countOwners() {
+        return em.createQuery("select count(u) from User u where u.id = :ownerId", Long.class)
+                .setParameter("ownerId", ownerId)
+                .getSingleResult();
+    }
+
+    private long countItems() {
+        return em.createQuery("select count(i) from Item i where i.owner.id = :ownerId", Long.class)
+                .setParameter("ownerId", ownerId)
+                .getSingleResult();
+    }
+}
@@ -0,0 +1,115 @@
+package ru.practicum.shareitserver.integration.item.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareitserver.item.model.entity.Comment;
+import ru.practicum.shareitserver.item.model.entity.Item;
+import ru.practicum.shareitserver.requests.model.entity.ItemRequest;
+import ru.practicum.shareitserver.user.model.entity.User;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareitserver.common.Constants.X_SHARER_USER_ID;
+
+/**
+ * Кэш второго уровня: данные фиксируются в отдельных транзакциях (в кэш попадает только зафиксированное),
+ * поэтому удаляются после каждого теста.
+ */
+@AutoConfigureMockMvc
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@SpringBootTest(properties = {"db.name=test", "spring.jpa.properties.hibernate.generate_statistics=true"})
+public class ItemSecondLevelCacheTest {
+    private final MockMvc mvc;
+    private final EntityManager em;
+    private final EntityManagerFactory entityManagerFactory;
+    private final TransactionTemplate transactionTemplate;
+
+    private long ownerId;
+    private long requestorId;
+    private long itemId;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate.executeWithoutResult(status -> {
+            User owner = new User(null, "Maria", "maria_cache@mail.ru");
+            em.persist(owner);
+            User requestor = new User(null, "Ivan", "ivan_cache@mail.ru");
+            em.persist(requestor);
+            ItemRequest request = new ItemRequest(null, "нужна дрель", requestor, LocalDateTime.now());
+            em.persist(request);
+            Item item = new Item(null, "Дрель", "ударная", true, owner, request);
+            em.persist(item);
+            em.persist(new Comment(null, "отличная дрель", item, requestor, LocalDateTime.now()));
+            ownerId = owner.getId();
+            requestorId = requestor.getId();
+            itemId = item.getId();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(status -> {
+            em.createQuery("delete from Comment c where c.item.id = :itemId")
+                    .setParameter("itemId", itemId)
+                    .executeUpdate();
+            em.createQuery("delete from Item i where i.id = :itemId")
+                    .setParameter("itemId", itemId)
+                    .executeUpdate();
+            em.createQuery("delete from ItemRequest r where r.requestor.id = :requestorId")
+                    .setParameter("requestorId", requestorId)
+                    .executeUpdate();
+            em.createQuery("delete from User u where u.id in :ids")
+                    .setParameter("ids", List.of(ownerId, requestorId))
+                    .executeUpdate();
+        });
+    }
+
+    @Test
+    @DisplayName("Повторный просмотр вещи берёт вещь, владельца и запрос из кэша второго уровня без отдельных SELECT")
+    void getItemByIdWarm() throws Exception {
+        //GIVEN
+        getItem();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        //WHEN
+        getItem();
+
+        //THEN
+        assertThat(statistics.getSecondLevelCacheHitCount(), greaterThan(0L));
+        for (Class<?> entity : List.of(Item.class, ItemRequest.class)) {
+            assertThat(entity.getSimpleName(), statistics.getEntityStatistics(entity.getName()).getLoadCount(),
+                    equalTo(0L));
+        }
+        //Автор отзыва приходит в запросе отзывов, отдельного SELECT пользователя нет
+        assertThat(statistics.getEntityStatistics(User.class.getName()).getFetchCount(), equalTo(0L));
+    }
+
+    private void getItem() throws Exception {
+        mvc.perform(get("/items/{itemId}", itemId)
+                        .header(X_SHARER_USER_ID, ownerId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name", is("Дрель")))
+                .andExpect(jsonPath("$.comments[0].authorName", is("Ivan")));
+    }
+}
@@ -20,6 +20,7 @@ import javax.persistence.EntityManager;
 import javax.persistence.TypedQuery;
 import javax.transaction.Transactional;
 import java.util.List;
+import java.util.Map;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
@@ -107,6 +108,43 @@ public class ItemServiceImplTest {
         }
     }
 
+    @Test
+    @DisplayName("Получение ответов на несколько запросов одним запросом")
+    void getItemsByRequestIds() {
+        //GIVEN
+        User owner = UserMapper.toUser(makeUserDto("Maria", "maria_smart@mail.ru"));
+        em.persist(owner);
+        User requestor = UserMapper.toUser(makeUserDto("Ivan", "ivan_humble@mail.ru"));
+        em.persist(requestor);
+        ItemRequest itemRequest1 = ItemRequestMapper.toItemRequest(makeItemRequestDto("ищу сувенир1"));
+        itemRequest1.setRequestor(requestor);
+        em.persist(itemRequest1);
+        ItemRequest itemRequest2 = ItemRequestMapper.toItemRequest(makeItemRequestDto("ищу сувенир2"));
+        itemRequest2.setRequestor(requestor);
+        em.persist(itemRequest2);
+        ItemRequest itemRequest3 = ItemRequestMapper.toItemRequest(makeItemRequestDto("ищу сувенир3"));
+        itemRequest3.setRequestor(requestor);
+        em.persist(itemRequest3);
+        em.flush();
+        saveItemsInDB(List.of(
+                makeItemDto("Магнит", "сувенир1", true, itemRequest1.getId()),
+                makeItemDto("Открытка", "сувенир2", true, itemRequest1.getId()),
+                makeItemDto("Конфеты", "сувенир3", true, itemRequest2.getId()),
+                makeItemDto("Косметика", "сувенир4", true, null)
+        ), owner, em);
+
+        //WHEN
+        Map<Long, List<Item>> targetItems = service.getItemsByRequestIds(
+                List.of(itemRequest1.getId(), itemRequest2.getId(), itemRequest3.getId()));
+
+        //THEN
+        assertThat(targetItems.get(itemRequest1.getId()), containsInAnyOrder(
+                hasProperty("name", equalTo("Магнит")),
+                hasProperty("name", equalTo("Открытка"))));
+        assertThat(targetItems.get(itemRequest2.getId()), contains(hasProperty("name", equalTo("Конфеты"))));
+        assertThat(targetItems, not(hasKey(itemRequest3.getId())));
+    }
+
     private void saveItemsInDB(List<ItemDto> sourceItems, User owner2, EntityManager em) {
         for (ItemDto item : sourceItems) {
             Item entity = ItemMapper.toItem(item);
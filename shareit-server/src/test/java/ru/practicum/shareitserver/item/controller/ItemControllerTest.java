@@ -8,6 +8,8 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareitserver.booking.model.AvailabilitySlot;
+import ru.practicum.shareitserver.booking.model.ItemBookings;
 import ru.practicum.shareitserver.booking.service.BookingService;
 import ru.practicum.shareitserver.item.mapper.CommentMapper;
 import ru.practicum.shareitserver.item.mapper.ItemMapper;
@@ -20,7 +22,9 @@ import ru.practicum.shareitserver.user.model.entity.User;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
+import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.nullValue;
 import static org.mockito.ArgumentMatchers.*;
@@ -58,12 +62,10 @@ class ItemControllerTest {
         List<Item> items = List.of(item1, item2);
         when(itemService.getItemsByUserId(anyLong(), anyInt(), anyInt()))
                 .thenReturn(items);
-        when(itemService.getCommentsByItemId(anyLong()))
-                .thenReturn(null);
-        when(bookingService.getLastBookingByItemId(anyLong(), any()))
-                .thenReturn(null);
-        when(bookingService.getNextBookingByItemId(anyLong(), any()))
-                .thenReturn(null);
+        when(itemService.getCommentsByItemIds(anyCollection()))
+                .thenReturn(Map.of(item1.getId(), List.of(comment1)));
+        when(bookingService.getBookingsByItemIds(anyCollection()))
+                .thenReturn(new ItemBookings(Map.of(), Map.of()));
 
         mvc.perform(get("/items")
                         .header(X_SHARER_USER_ID, 1L))
@@ -74,14 +76,14 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$[0].available", is(item1.getAvailable())))
                 .andExpect(jsonPath("$[0].lastBooking", is(nullValue())))
                 .andExpect(jsonPath("$[0].nextBooking", is(nullValue())))
-                .andExpect(jsonPath("$[0].comments", is(nullValue())))
+                .andExpect(jsonPath("$[0].comments[0].id", is(comment1.getId()), Long.class))
                 .andExpect(jsonPath("$[1].id", is(item2.getId()), Long.class))
                 .andExpect(jsonPath("$[1].name", is(item2.getName())))
                 .andExpect(jsonPath("$[1].description", is(item2.getDescription())))
                 .andExpect(jsonPath("$[1].available", is(item2.getAvailable())))
                 .andExpect(jsonPath("$[1].lastBooking", is(nullValue())))
                 .andExpect(jsonPath("$[1].nextBooking", is(nullValue())))
-                .andExpect(jsonPath("$[1].comments", is(nullValue())));
+                .andExpect(jsonPath("$[1].comments", hasSize(0)));
     }
 
     @Test
@@ -154,7 +156,7 @@ class ItemControllerTest {
     @DisplayName("Поиск вещей по тексту")
     void getItemsByText() throws Exception {
         List<Item> items = List.of(item1, item2);
-        when(itemService.getItemsByText(anyLong(), anyString(), anyInt(), anyInt()))
+        when(itemService.getItemsByText(anyLong(), anyString(), isNull(), isNull(), anyInt(), anyInt()))
                 .thenReturn(items);
 
         List<ItemDto> itemDtoList = ItemMapper.toItemDtoList(items);
@@ -168,6 +170,25 @@ class ItemControllerTest {
                 .andExpect(content().json(mapper.writeValueAsString(itemDtoList)));
     }
 
+    @Test
+    @DisplayName("Поиск вещей по тексту, свободных в заданный период")
+    void getItemsByTextInPeriod() throws Exception {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 12, 0);
+        LocalDateTime end = start.plusDays(2);
+        List<Item> items = List.of(item1);
+        when(itemService.getItemsByText(anyLong(), anyString(), eq(start), eq(end), anyInt(), anyInt()))
+                .thenReturn(items);
+
+        mvc.perform(get("/items/search")
+                        .header(X_SHARER_USER_ID, 1L)
+                        .param("text", "сувен")
+                        .param("start", start.toString())
+                        .param("end", end.toString())
+                )
+                .andExpect(status().isOk())
+                .andExpect(content().json(mapper.writeValueAsString(ItemMapper.toItemDtoList(items))));
+    }
+
     @Test
     @DisplayName("Добавление отзыва пользователем")
     void addComment() throws Exception {
@@ -186,4 +207,28 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$.authorName", is(comment1.getAuthor().getName())))
                 .andExpect(jsonPath("$.created", is(comment1.getCreated().toString())));
     }
+
+    @Test
+    @DisplayName("Получение календаря вещи")
+    void getItemAvailability() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime busyStart = from.plusDays(1);
+        LocalDateTime to = from.plusDays(3);
+        when(bookingService.getItemAvailability(anyLong(), anyLong(), any(), any()))
+                .thenReturn(List.of(
+                        new AvailabilitySlot(from, busyStart, true),
+                        new AvailabilitySlot(busyStart, to, false)));
+
+        mvc.perform(get("/items/1/availability")
+                        .header(X_SHARER_USER_ID, 1L)
+                        .param("from", from.toString())
+                        .param("to", to.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].start", is("2030-01-01T00:00:00")))
+                .andExpect(jsonPath("$[0].free", is(true)))
+                .andExpect(jsonPath("$[1].start", is("2030-01-02T00:00:00")))
+                .andExpect(jsonPath("$[1].end", is("2030-01-04T00:00:00")))
+                .andExpect(jsonPath("$[1].free", is(false)));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,160 @@
+package ru.practicum.shareitserver.item.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.practicum.shareitserver.booking.Status;
+import ru.practicum.shareitserver.booking.model.entity.Booking;
+import ru.practicum.shareitserver.item.model.entity.Item;
+import ru.practicum.shareitserver.user.model.entity.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Полнотекстовый поиск на PostgreSQL той же версии, что в docker-compose: миграции V1–V7
+ * (search_vector, GIN-индексы, pg_trgm, btree_gist) и нативные запросы {@link FullTextItemSearchRepository}.
+ * Остальные тесты работают на H2 с движком like, поэтому движок по умолчанию проверяется только здесь.
+ * Нужен Docker; без него тест пропускается. Запуск: mvn -pl shareit-server test -Dtest=FullTextItemSearchRepositoryTest
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@DataJpaTest(properties = "shareit.item-search.engine=full-text")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(FullTextItemSearchRepository.class)
+class FullTextItemSearchRepositoryTest {
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:13.7-alpine");
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    ItemSearchRepository itemSearchRepository;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.driverClassName", POSTGRES::getDriverClassName);
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @Test
+    @DisplayName("Применены все миграции, включая индексы полнотекстового и триграммного поиска")
+    void migrations() {
+        assertThat(jdbcTemplate.queryForList(
+                "select version from flyway_schema_history where success order by installed_rank", String.class))
+                .containsExactly("1", "2", "3", "4", "5", "6", "7");
+        assertThat(jdbcTemplate.queryForList(
+                "select indexname from pg_indexes where tablename = 'items'", String.class))
+                .contains("items_search_vector_idx", "items_name_trgm_idx", "items_description_trgm_idx");
+    }
+
+    @Test
+    @DisplayName("Совпадение по словоформе и по подстроке; совпадения в названии выше, недоступные вещи не выдаются")
+    void search() {
+        User user1 = em.persist(new User(null, "Maria", "maria_smart@mail.ru"));
+        Item item1 = em.persist(makeItem("Аккумулятор", "подходит для дрели", true, user1));
+        Item item2 = em.persist(makeItem("Дрель", "ударная", true, user1));
+        em.persist(makeItem("Дрель2", "сломана", false, user1));
+        Item item4 = em.persist(makeItem("Шуруповёрт", "дрель-шуруповёрт", true, user1));
+        em.persist(makeItem("Отвёртка", "крестовая", true, user1));
+        em.flush();
+
+        assertThat(itemSearchRepository.search("дрели", PageRequest.of(0, 20)))
+                .containsExactlyInAnyOrder(item1, item2, item4)
+                .first().isEqualTo(item2);
+        assertThat(itemSearchRepository.search("рель", PageRequest.of(0, 20)))
+                .containsExactlyInAnyOrder(item2, item4)
+                .first().isEqualTo(item2);
+    }
+
+    @Test
+    @DisplayName("Символы % и _ в тексте ищутся буквально")
+    void searchEscapesWildcards() {
+        User user1 = em.persist(new User(null, "Maria", "maria_smart@mail.ru"));
+        Item item1 = em.persist(makeItem("Скидка 50%", "сувенир", true, user1));
+        em.persist(makeItem("Скидка 500", "сувенир", true, user1));
+        em.flush();
+
+        assertThat(itemSearchRepository.search("50%", PageRequest.of(0, 20))).containsExactly(item1);
+    }
+
+    @Test
+    @DisplayName("Вещи с подтверждённым бронированием, пересекающим период, не выдаются (FREE_IN_PERIOD)")
+    void searchFreeInPeriod() {
+        User user1 = em.persist(new User(null, "Maria", "maria_smart@mail.ru"));
+        User user2 = em.persist(new User(null, "Ivan", "ivan_smart@mail.ru"));
+        Item item1 = em.persist(makeItem("Магнит", "сувенир", true, user1));
+        Item item2 = em.persist(makeItem("Магнит", "сувенир", true, user1));
+        Item item3 = em.persist(makeItem("Магнит", "сувенир", true, user1));
+        Item item4 = em.persist(makeItem("Магнит", "сувенир", true, user1));
+        LocalDateTime start = LocalDateTime.of(2030, 1, 10, 0, 0);
+        LocalDateTime end = start.plusDays(5);
+        em.persist(new Booking(null, start.plusDays(1), start.plusDays(2), item1, user2, Status.APPROVED));
+        em.persist(new Booking(null, start.plusDays(1), start.plusDays(2), item2, user2, Status.WAITING));
+        em.persist(new Booking(null, end, end.plusDays(1), item3, user2, Status.APPROVED));
+        em.persist(new Booking(null, start.minusDays(3), start.plusHours(1), item4, user2, Status.APPROVED));
+        em.flush();
+
+        assertThat(itemSearchRepository.search("магнит", start, end, PageRequest.of(0, 20)))
+                .containsExactly(item2, item3);
+        assertThat(itemSearchRepository.search("магнит", start, end, PageRequest.of(1, 1)))
+                .containsExactly(item3);
+        assertThat(itemSearchRepository.searchAfter("магнит", start, end, item2.getId(), 1).getContent())
+                .containsExactly(item3);
+    }
+
+    @Test
+    @DisplayName("Страницы по курсору идут в порядке выдачи search, в том числе через разные ранги")
+    void searchAfter() {
+        User user1 = em.persist(new User(null, "Maria", "maria_smart@mail.ru"));
+        em.persist(makeItem("Аккумулятор", "подходит для дрели", true, user1));
+        em.persist(makeItem("Дрель", "ударная", true, user1));
+        em.persist(makeItem("Дрель", "аккумуляторная", true, user1));
+        em.persist(makeItem("Шуруповёрт", "дрель-шуруповёрт", true, user1));
+        em.persist(makeItem("Дрель ударная", "с кейсом", true, user1));
+        em.flush();
+        List<Item> expected = itemSearchRepository.search("дрель", PageRequest.of(0, 20));
+
+        Slice<Item> page = itemSearchRepository.searchAfter("дрель", null, null, null, 2);
+        List<Item> paged = new ArrayList<>(page.getContent());
+        while (page.hasNext()) {
+            page = itemSearchRepository.searchAfter("дрель", null, null, paged.get(paged.size() - 1).getId(), 2);
+            paged.addAll(page.getContent());
+        }
+
+        assertThat(expected).hasSize(5);
+        assertThat(paged).containsExactlyElementsOf(expected);
+    }
+
+    private Item makeItem(String name,
+                          String description,
+                          Boolean available,
+                          User user) {
+        Item item = new Item();
+        item.setName(name);
+        item.setDescription(description);
+        item.setAvailable(available);
+        item.setOwner(user);
+        return item;
+    }
+}
@@ -5,10 +5,12 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
-import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareitserver.booking.Status;
+import ru.practicum.shareitserver.booking.model.entity.Booking;
 import ru.practicum.shareitserver.item.model.entity.Item;
 import ru.practicum.shareitserver.user.model.entity.User;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -23,23 +25,20 @@ class ItemRepositoryTest {
     ItemRepository itemRepository;
 
     @Test
-    @DisplayName("Поиск вещей по тексту")
-    void getItemsByText() {
+    @DisplayName("id вещей, свободных в период")
+    void findFreeIdsIn() {
         User user1 = new User(null, "Maria", "maria_smart@mail.ru");
         em.persist(user1);
-        Item item1 = makeItem("Магнит", "сувенир", true, user1);
-        em.persist(item1);
-        Item item2 = makeItem("Магнит2", "сувенир2", false, user1);
-        em.persist(item2);
-        Item item3 = makeItem("магнит3", "сувенир3", true, user1);
-        em.persist(item3);
-        Item item4 = makeItem("Открытка", "сувенир4", true, user1);
-        em.persist(item4);
-        Item item5 = makeItem("Сувенир", "магнит5", true, user1);
-        em.persist(item5);
-        PageRequest pr = PageRequest.of(0, 20);
-        List<Item> items = itemRepository.getItemsByText("Магни", pr).toList();
-        assertThat(items).hasSize(3).contains(item1, item3, item5);
+        User user2 = new User(null, "Ivan", "ivan_smart@mail.ru");
+        em.persist(user2);
+        Item item2 = em.persist(makeItem("Магнит2", "сувенир2", true, user1));
+        Item item3 = em.persist(makeItem("Магнит3", "сувенир3", true, user1));
+        LocalDateTime start = LocalDateTime.of(2030, 1, 10, 0, 0);
+        LocalDateTime end = start.plusDays(5);
+        em.persist(new Booking(null, start.minusDays(1), start.plusDays(1), item2, user2, Status.APPROVED));
+
+        assertThat(itemRepository.findFreeIdsIn(List.of(item3.getId(), item2.getId()), start, end))
+                .containsExactly(item3.getId());
     }
 
     private Item makeItem(String name,
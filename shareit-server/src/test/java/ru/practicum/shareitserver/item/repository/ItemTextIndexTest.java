@@ -0,0 +1,101 @@
+package ru.practicum.shareitserver.item.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ItemTextIndexTest {
+    private final ItemTextIndex index = new ItemTextIndex();
+
+    @Test
+    @DisplayName("Поиск по подстроке без учёта регистра: сначала совпадения в названии")
+    void search() {
+        index.put(5, "Сувенир", "магнит5");
+        index.put(1, "Магнит", "сувенир");
+        index.put(3, "магнит3", "сувенир3");
+        index.put(4, "Открытка", "сувенир4");
+
+        assertThat(index.search("Магни")).containsExactly(1L, 3L, 5L);
+        assertThat(index.search("СУВЕНИР4")).containsExactly(4L);
+        assertThat(index.search("гни")).containsExactly(1L, 3L, 5L);
+        assertThat(index.search("чайник")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Продолжение выдачи после вещи с совпадением в названии или только в описании")
+    void searchAfter() {
+        index.put(5, "Сувенир", "магнит5");
+        index.put(1, "Магнит", "сувенир");
+        index.put(3, "магнит3", "сувенир3");
+        index.put(6, "Открытка", "магнит6");
+
+        assertThat(index.searchAfter("Магни", true, 1)).containsExactly(3L, 5L, 6L);
+        assertThat(index.searchAfter("Магни", true, 3)).containsExactly(5L, 6L);
+        assertThat(index.searchAfter("Магни", false, 5)).containsExactly(6L);
+        assertThat(index.searchAfter("Магни", true, 2)).containsExactly(3L, 5L, 6L);
+        assertThat(ItemTextIndex.nameContains("Магнит", "МАГНИ")).isTrue();
+        assertThat(ItemTextIndex.nameContains("Сувенир", "магни")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Запрос короче триграммы проверяется по всем вещам")
+    void searchShortText() {
+        index.put(2, "Ёлка", "игрушка");
+        index.put(1, "Дрель", "ударная");
+
+        assertThat(index.search("ка")).containsExactly(2L);
+        assertThat(index.search("у")).containsExactly(1L, 2L);
+    }
+
+    @Test
+    @DisplayName("Обновление и удаление вещи меняют выдачу")
+    void updateAndRemove() {
+        index.put(1, "Дрель", "ударная");
+        index.put(2, "Дрель", "аккумуляторная");
+
+        index.put(1, "Перфоратор", "ударный");
+        assertThat(index.search("дрель")).containsExactly(2L);
+        assertThat(index.search("перфоратор")).containsExactly(1L);
+
+        index.remove(2);
+        assertThat(index.search("дрель")).isEmpty();
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Совпадение должно быть подстрокой, а не набором общих триграмм")
+    void searchRequiresSubstring() {
+        index.put(1, "абвгд", "");
+        index.put(2, "вгдабв", "");
+
+        assertThat(index.search("абвгд")).containsExactly(1L);
+    }
+
+    @Test
+    @DisplayName("Построенный целиком индекс ищет так же и принимает одиночные изменения")
+    void builder() {
+        ItemTextIndex built = ItemTextIndex.builder()
+                .put(5, "Сувенир", "магнит5")
+                .put(3, "магнит3", "сувенир3")
+                .put(1, "Магнит", "сувенир")
+                .build();
+
+        assertThat(built.search("Магни")).containsExactly(1L, 3L, 5L);
+        assertThat(built.size()).isEqualTo(3);
+
+        built.put(2, "Магнит2", "");
+        built.remove(3);
+        assertThat(built.search("магнит")).containsExactly(1L, 2L, 5L);
+    }
+
+    @Test
+    @DisplayName("Повторное добавление вещи при построении индекса — ошибка")
+    void builderRejectsDuplicateId() {
+        ItemTextIndex.Builder builder = ItemTextIndex.builder().put(1, "Дрель", "");
+
+        assertThatThrownBy(() -> builder.put(1, "Перфоратор", ""))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,132 @@
+package ru.practicum.shareitserver.item.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import ru.practicum.shareitserver.booking.Status;
+import ru.practicum.shareitserver.booking.model.entity.Booking;
+import ru.practicum.shareitserver.item.model.entity.Item;
+import ru.practicum.shareitserver.user.model.entity.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "shareit.item-search.engine=like")
+@Import(LikeItemSearchRepository.class)
+class LikeItemSearchRepositoryTest {
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    ItemSearchRepository itemSearchRepository;
+
+    @Test
+    @DisplayName("Совпадения в названии выдаются раньше совпадений в описании, недоступные вещи не выдаются")
+    void search() {
+        User user1 = new User(null, "Maria", "maria_smart@mail.ru");
+        em.persist(user1);
+        Item item1 = em.persist(makeItem("Сувенир", "магнит5", true, user1));
+        Item item2 = em.persist(makeItem("Магнит", "сувенир", true, user1));
+        em.persist(makeItem("Магнит2", "сувенир2", false, user1));
+        Item item4 = em.persist(makeItem("магнит3", "сувенир3", true, user1));
+        em.persist(makeItem("Открытка", "сувенир4", true, user1));
+
+        List<Item> items = itemSearchRepository.search("Магни", PageRequest.of(0, 20));
+
+        assertThat(items).containsExactly(item2, item4, item1);
+        assertThat(itemSearchRepository.search("Магни", PageRequest.of(1, 2))).containsExactly(item1);
+    }
+
+    @Test
+    @DisplayName("Символы % и _ в тексте ищутся буквально")
+    void searchEscapesWildcards() {
+        User user1 = new User(null, "Maria", "maria_smart@mail.ru");
+        em.persist(user1);
+        Item item1 = em.persist(makeItem("Скидка 50%", "сувенир", true, user1));
+        em.persist(makeItem("Скидка 500", "сувенир", true, user1));
+
+        assertThat(itemSearchRepository.search("50%", PageRequest.of(0, 20))).containsExactly(item1);
+    }
+
+    @Test
+    @DisplayName("Вещи с подтверждённым бронированием, пересекающим период, не выдаются")
+    void searchFreeInPeriod() {
+        User user1 = new User(null, "Maria", "maria_smart@mail.ru");
+        em.persist(user1);
+        User user2 = new User(null, "Ivan", "ivan_smart@mail.ru");
+        em.persist(user2);
+        Item item1 = em.persist(makeItem("Магнит", "сувенир", true, user1));
+        Item item2 = em.persist(makeItem("Магнит2", "сувенир2", true, user1));
+        Item item3 = em.persist(makeItem("Магнит3", "сувенир3", true, user1));
+        Item item4 = em.persist(makeItem("Магнит4", "сувенир4", true, user1));
+        LocalDateTime start = LocalDateTime.of(2030, 1, 10, 0, 0);
+        LocalDateTime end = start.plusDays(5);
+        em.persist(new Booking(null, start.plusDays(1), start.plusDays(2), item1, user2, Status.APPROVED));
+        em.persist(new Booking(null, start.plusDays(1), start.plusDays(2), item2, user2, Status.WAITING));
+        em.persist(new Booking(null, end, end.plusDays(1), item3, user2, Status.APPROVED));
+        em.persist(new Booking(null, start.minusDays(3), start.plusHours(1), item4, user2, Status.APPROVED));
+
+        assertThat(itemSearchRepository.search("Магни", start, end, PageRequest.of(0, 20)))
+                .containsExactly(item2, item3);
+        assertThat(itemSearchRepository.search("Магни", start, end, PageRequest.of(1, 1)))
+                .containsExactly(item3);
+    }
+
+    @Test
+    @DisplayName("Страницы по курсору идут в порядке выдачи search, в том числе через границу рангов")
+    void searchAfter() {
+        User user1 = new User(null, "Maria", "maria_smart@mail.ru");
+        em.persist(user1);
+        Item item1 = em.persist(makeItem("Сувенир", "магнит5", true, user1));
+        Item item2 = em.persist(makeItem("Магнит", "сувенир", true, user1));
+        Item item3 = em.persist(makeItem("Скидка 50%", "магнит", true, user1));
+        Item item4 = em.persist(makeItem("магнит3", "сувенир3", true, user1));
+
+        Slice<Item> page = itemSearchRepository.searchAfter("Магни", null, null, null, 2);
+        assertThat(page.getContent()).containsExactly(item2, item4);
+        assertThat(page.hasNext()).isTrue();
+        page = itemSearchRepository.searchAfter("Магни", null, null, item4.getId(), 2);
+        assertThat(page.getContent()).containsExactly(item1, item3);
+        assertThat(page.hasNext()).isFalse();
+        assertThat(itemSearchRepository.searchAfter("50%", null, null, null, 2).getContent()).containsExactly(item3);
+    }
+
+    @Test
+    @DisplayName("Страницы по курсору исключают занятые в период вещи; курсор на удалённую вещь даёт пустую страницу")
+    void searchAfterFreeInPeriod() {
+        User user1 = new User(null, "Maria", "maria_smart@mail.ru");
+        em.persist(user1);
+        User user2 = new User(null, "Ivan", "ivan_smart@mail.ru");
+        em.persist(user2);
+        Item item1 = em.persist(makeItem("Магнит", "сувенир", true, user1));
+        Item item2 = em.persist(makeItem("Магнит2", "сувенир2", true, user1));
+        Item item3 = em.persist(makeItem("Сувенир3", "магнит3", true, user1));
+        LocalDateTime start = LocalDateTime.of(2030, 1, 10, 0, 0);
+        LocalDateTime end = start.plusDays(5);
+        em.persist(new Booking(null, start.minusDays(1), start.plusDays(1), item2, user2, Status.APPROVED));
+
+        assertThat(itemSearchRepository.searchAfter("Магни", start, end, item1.getId(), 1).getContent())
+                .containsExactly(item3);
+        assertThat(itemSearchRepository.searchAfter("Магни", start, end, Long.MAX_VALUE, 1).getContent()).isEmpty();
+    }
+
+    private Item makeItem(String name,
+                          String description,
+                          Boolean available,
+                          User user) {
+        Item item = new Item();
+        item.setName(name);
+        item.setDescription(description);
+        item.setAvailable(available);
+        item.setOwner(user);
+        return item;
+    }
+}
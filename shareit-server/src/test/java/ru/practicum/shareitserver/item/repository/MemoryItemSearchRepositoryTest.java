@@ -0,0 +1,184 @@
+package ru.practicum.shareitserver.item.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareitserver.item.model.entity.Item;
+import ru.practicum.shareitserver.user.model.entity.User;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Индекс обновляется только после фиксации транзакции,
+ * поэтому тесты работают без общей откатываемой транзакции и чистят данные сами.
+ */
+@DataJpaTest(properties = "shareit.item-search.engine=memory")
+@Import(MemoryItemSearchRepository.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class MemoryItemSearchRepositoryTest {
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MemoryItemSearchRepository itemSearchRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @BeforeEach
+    void setUp() {
+        itemSearchRepository.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(status -> {
+            em.createQuery("delete from Item").executeUpdate();
+            em.createQuery("delete from User").executeUpdate();
+        });
+    }
+
+    @Test
+    @DisplayName("Перестроение индекса из БД: недоступные вещи не выдаются, страница загружается в порядке индекса")
+    void rebuild() {
+        List<Item> items = transactionTemplate.execute(status -> {
+            User user = persist(new User(null, "Maria", "maria_smart@mail.ru"));
+            return List.of(
+                    persist(new Item(null, "Сувенир", "магнит5", true, user, null)),
+                    persist(new Item(null, "Магнит", "сувенир", true, user, null)),
+                    persist(new Item(null, "Магнит2", "сувенир2", false, user, null)),
+                    persist(new Item(null, "магнит3", "сувенир3", true, user, null)));
+        });
+        assertThat(search("Магни", 0, 20)).isEmpty();
+
+        itemSearchRepository.rebuild();
+
+        assertThat(search("Магни", 0, 20))
+                .containsExactly(items.get(1).getId(), items.get(3).getId(), items.get(0).getId());
+        assertThat(search("Магни", 1, 2)).containsExactly(items.get(0).getId());
+    }
+
+    @Test
+    @DisplayName("Сохранённая вещь попадает в индекс только после фиксации транзакции")
+    void onItemSavedAfterCommit() {
+        User user = transactionTemplate.execute(status -> persist(new User(null, "Maria", "maria_smart@mail.ru")));
+
+        Item item = transactionTemplate.execute(status -> {
+            Item saved = persist(new Item(null, "Дрель", "ударная", true, user, null));
+            itemSearchRepository.onItemSaved(saved);
+            assertThat(search("дрель", 0, 20)).isEmpty();
+            return saved;
+        });
+        assertThat(search("дрель", 0, 20)).containsExactly(item.getId());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Item rolledBack = persist(new Item(null, "Дрель2", "аккумуляторная", true, user, null));
+            itemSearchRepository.onItemSaved(rolledBack);
+            status.setRollbackOnly();
+        });
+        assertThat(search("дрель", 0, 20)).containsExactly(item.getId());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Item unavailable = em.find(Item.class, item.getId());
+            unavailable.setAvailable(false);
+            itemSearchRepository.onItemSaved(unavailable);
+        });
+        assertThat(search("дрель", 0, 20)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Страницы по курсору идут в порядке выдачи search, ранг вещи-курсора берётся из БД")
+    void searchAfter() {
+        List<Item> items = transactionTemplate.execute(status -> {
+            User user = persist(new User(null, "Maria", "maria_smart@mail.ru"));
+            return List.of(
+                    persist(new Item(null, "Сувенир", "магнит5", true, user, null)),
+                    persist(new Item(null, "Магнит", "сувенир", true, user, null)),
+                    persist(new Item(null, "магнит3", "сувенир3", true, user, null)));
+        });
+        itemSearchRepository.rebuild();
+
+        Slice<Item> page = itemSearchRepository.searchAfter("Магни", null, null, null, 2);
+        assertThat(page.getContent()).extracting(Item::getId)
+                .containsExactly(items.get(1).getId(), items.get(2).getId());
+        assertThat(page.hasNext()).isTrue();
+        page = itemSearchRepository.searchAfter("Магни", null, null, items.get(2).getId(), 2);
+        assertThat(page.getContent()).extracting(Item::getId).containsExactly(items.get(0).getId());
+        assertThat(page.hasNext()).isFalse();
+        assertThat(itemSearchRepository.searchAfter("Магни", null, null, Long.MAX_VALUE, 2).getContent()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("До первого построения индекса поиск идёт по подстроке в БД")
+    void searchBeforeFirstRebuild() {
+        Item item = transactionTemplate.execute(status -> {
+            User user = persist(new User(null, "Maria", "maria_smart@mail.ru"));
+            return persist(new Item(null, "Дрель", "ударная", true, user, null));
+        });
+        MemoryItemSearchRepository notBuilt = new MemoryItemSearchRepository(itemRepository, em);
+
+        assertThat(search(notBuilt, "рел", 0, 20)).containsExactly(item.getId());
+    }
+
+    @Test
+    @DisplayName("Вещи, сохранённые во время перестроения индекса, не теряются при подмене индекса")
+    void onItemSavedDuringRebuild() {
+        User user = transactionTemplate.execute(status -> persist(new User(null, "Maria", "maria_smart@mail.ru")));
+        Item streamed = transactionTemplate.execute(status -> persist(new Item(null, "Дрель", "ударная", true, user, null)));
+        Item[] added = new Item[1];
+        ItemRepository slowRepository = mock(ItemRepository.class, delegatesTo(itemRepository));
+        MemoryItemSearchRepository repository = new MemoryItemSearchRepository(slowRepository, em);
+        TransactionTemplate concurrent = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        concurrent.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        // пока читается первая вещь, другая транзакция делает её недоступной и добавляет новую
+        doAnswer(invocation -> itemRepository.streamAllByAvailableTrue()
+                .peek(item -> concurrent.executeWithoutResult(status -> {
+                    Item unavailable = em.find(Item.class, streamed.getId());
+                    unavailable.setAvailable(false);
+                    repository.onItemSaved(unavailable);
+                    added[0] = persist(new Item(null, "Дрель2", "аккумуляторная", true, user, null));
+                    repository.onItemSaved(added[0]);
+                })))
+                .when(slowRepository).streamAllByAvailableTrue();
+
+        transactionTemplate.executeWithoutResult(status -> repository.rebuild());
+
+        assertThat(search(repository, "дрель", 0, 20)).containsExactly(added[0].getId());
+    }
+
+    private List<Long> search(String text, int page, int size) {
+        return search(itemSearchRepository, text, page, size);
+    }
+
+    private static List<Long> search(ItemSearchRepository repository, String text, int page, int size) {
+        return repository.search(text, PageRequest.of(page, size)).stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+    }
+
+    private <T> T persist(T entity) {
+        em.persist(entity);
+        return entity;
+    }
+}
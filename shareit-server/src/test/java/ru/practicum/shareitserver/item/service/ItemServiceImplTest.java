@@ -9,12 +9,18 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import ru.practicum.shareitserver.booking.model.entity.Booking;
 import ru.practicum.shareitserver.booking.repository.BookingRepository;
+import ru.practicum.shareitserver.common.exception.BadRequestException;
+import ru.practicum.shareitserver.common.model.Cursor;
 import ru.practicum.shareitserver.item.model.entity.Comment;
 import ru.practicum.shareitserver.item.model.entity.Item;
 import ru.practicum.shareitserver.item.repository.CommentRepository;
 import ru.practicum.shareitserver.item.repository.ItemRepository;
+import ru.practicum.shareitserver.item.repository.ItemSearchRepository;
 import ru.practicum.shareitserver.requests.model.entity.ItemRequest;
 import ru.practicum.shareitserver.requests.service.ItemRequestService;
 import ru.practicum.shareitserver.user.model.entity.User;
@@ -41,6 +47,8 @@ class ItemServiceImplTest {
     UserService mockUserService;
     @Mock
     ItemRequestService mockItemRequestService;
+    @Mock
+    ItemSearchRepository mockItemSearchRepository;
 
     ItemServiceImpl itemServiceImpl;
 
@@ -62,7 +70,8 @@ class ItemServiceImplTest {
                 mockBookingRepository,
                 mockCommentRepository,
                 mockUserService,
-                mockItemRequestService);
+                mockItemRequestService,
+                mockItemSearchRepository);
     }
 
     @Test
@@ -260,14 +269,40 @@ class ItemServiceImplTest {
     void getItemsByText() {
         List<Item> sourceItems = List.of(ITEM_1, ITEM_2);
         Mockito
-                .when(mockItemRepository.getItemsByText(anyString(), any()))
-                .thenReturn(new PageImpl<>(sourceItems));
+                .when(mockItemSearchRepository.search(anyString(), isNull(), isNull(), any()))
+                .thenReturn(sourceItems);
 
-        List<Item> targetItems = itemServiceImpl.getItemsByText(USER_1.getId(), "сувенир", 0, 20);
+        List<Item> targetItems = itemServiceImpl.getItemsByText(USER_1.getId(), "сувенир", null, null, 0, 20);
         Assertions.assertEquals(sourceItems.size(), targetItems.size());
         checkFields(sourceItems, targetItems);
     }
 
+    @Test
+    @DisplayName("Поиск вещей по тексту по курсору идёт через тот же движок поиска, что и по from/size")
+    void getItemsByTextWithCursor() {
+        Slice<Item> sourceItems = new SliceImpl<>(List.of(ITEM_2), PageRequest.of(0, 1), true);
+        Mockito
+                .when(mockItemSearchRepository.searchAfter("сувенир", null, null, ITEM_1.getId(), 1))
+                .thenReturn(sourceItems);
+
+        Slice<Item> targetItems = itemServiceImpl.getItemsByText(USER_1.getId(), "сувенир", null, null,
+                Cursor.of(ITEM_1.getId()), 1);
+        Assertions.assertSame(sourceItems, targetItems);
+        Mockito.verifyNoInteractions(mockItemRepository);
+    }
+
+    @Test
+    @DisplayName("Поиск вещей по тексту с неполным или пустым периодом")
+    void getItemsByTextWrongPeriod() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+        Assertions.assertThrows(BadRequestException.class, () ->
+                itemServiceImpl.getItemsByText(USER_1.getId(), "сувенир", start, null, 0, 20));
+        Assertions.assertThrows(BadRequestException.class, () ->
+                itemServiceImpl.getItemsByText(USER_1.getId(), "сувенир", start, start, 0, 20));
+        Mockito.verifyNoInteractions(mockItemSearchRepository);
+    }
+
     @Test
     @DisplayName("Добавление отзыва")
     void addComment() {
@@ -18,7 +18,9 @@ import ru.practicum.shareitserver.user.model.entity.User;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
+import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.nullValue;
 import static org.mockito.ArgumentMatchers.*;
@@ -75,14 +77,8 @@ class ItemRequestControllerTest {
     void getItemRequests() throws Exception {
         when(itemRequestService.getItemRequestsByUserId(anyLong()))
                 .thenReturn(List.of(itemRequest1, itemRequest2));
-        when(itemService.getItemsByRequestId(anyLong()))
-                .thenAnswer(invocationOnMock -> {
-                    long itemRequestId = invocationOnMock.getArgument(0, Long.class);
-                    if (itemRequestId == 2) {
-                        return List.of(item1);
-                    }
-                    return null;
-                });
+        when(itemService.getItemsByRequestIds(anyCollection()))
+                .thenReturn(Map.of(itemRequest2.getId(), List.of(item1)));
 
         mvc.perform(get("/requests")
                         .header(X_SHARER_USER_ID, user1.getId()))
@@ -90,7 +86,7 @@ class ItemRequestControllerTest {
                 .andExpect(jsonPath("$[0].id", is(itemRequest1.getId()), Long.class))
                 .andExpect(jsonPath("$[0].description", is(itemRequest1.getDescription())))
                 .andExpect(jsonPath("$[0].requestor.id", is(itemRequest1.getRequestor().getId()), Long.class))
-                .andExpect(jsonPath("$[0].items", is(nullValue())))
+                .andExpect(jsonPath("$[0].items", hasSize(0)))
                 .andExpect(jsonPath("$[1].id", is(itemRequest2.getId()), Long.class))
                 .andExpect(jsonPath("$[1].description", is(itemRequest2.getDescription())))
                 .andExpect(jsonPath("$[1].requestor.id", is(itemRequest2.getRequestor().getId()), Long.class))
@@ -103,14 +99,8 @@ class ItemRequestControllerTest {
     void getItemRequestsAll() throws Exception {
         when(itemRequestService.getItemRequestsAll(anyLong(), anyInt(), anyInt()))
                 .thenReturn(List.of(itemRequest1, itemRequest2));
-        when(itemService.getItemsByRequestId(anyLong()))
-                .thenAnswer(invocationOnMock -> {
-                    long itemRequestId = invocationOnMock.getArgument(0, Long.class);
-                    if (itemRequestId == 2) {
-                        return List.of(item1);
-                    }
-                    return null;
-                });
+        when(itemService.getItemsByRequestIds(anyCollection()))
+                .thenReturn(Map.of(itemRequest2.getId(), List.of(item1)));
 
         mvc.perform(get("/requests/all")
                         .header(X_SHARER_USER_ID, user2.getId())
@@ -120,7 +110,7 @@ class ItemRequestControllerTest {
                 .andExpect(jsonPath("$[0].id", is(itemRequest1.getId()), Long.class))
                 .andExpect(jsonPath("$[0].description", is(itemRequest1.getDescription())))
                 .andExpect(jsonPath("$[0].requestor.id", is(itemRequest1.getRequestor().getId()), Long.class))
-                .andExpect(jsonPath("$[0].items", is(nullValue())))
+                .andExpect(jsonPath("$[0].items", hasSize(0)))
                 .andExpect(jsonPath("$[1].id", is(itemRequest2.getId()), Long.class))
                 .andExpect(jsonPath("$[1].description", is(itemRequest2.getDescription())))
                 .andExpect(jsonPath("$[1].requestor.id", is(itemRequest2.getRequestor().getId()), Long.class))
@@ -69,7 +69,7 @@ class ItemRequestServiceImplTest {
     void getItemRequestsByUserId() {
         List<ItemRequest> sourceItemRequests = List.of(ITEM_REQUEST_1, ITEM_REQUEST_2);
         Mockito
-                .when(mockIemRequestRepository.findItemRequestByRequestorId(anyLong()))
+                .when(mockIemRequestRepository.findItemRequestByRequestorIdOrderByCreatedAsc(anyLong()))
                 .thenReturn(sourceItemRequests);
 
         List<ItemRequest> targetItemRequests = itemRequestService.getItemRequestsByUserId(USER_1.getId());
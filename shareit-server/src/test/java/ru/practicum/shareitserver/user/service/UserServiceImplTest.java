@@ -8,9 +8,11 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareitserver.common.exception.NotFoundException;
 import ru.practicum.shareitserver.user.model.entity.User;
 import ru.practicum.shareitserver.user.repository.UserRepository;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,6 +25,8 @@ class UserServiceImplTest {
 
     @Mock
     UserRepository mockUserRepository;
+    @Mock
+    CascadeDeleteCacheEvictor mockCascadeDeleteCacheEvictor;
 
     UserServiceImpl userServiceImpl;
 
@@ -31,7 +35,8 @@ class UserServiceImplTest {
 
     @BeforeEach
     void setUp() {
-        userServiceImpl = new UserServiceImpl(mockUserRepository);
+        userServiceImpl = new UserServiceImpl(mockUserRepository,
+                new UserExistenceCache(mockUserRepository, 100, Duration.ofMinutes(10)), mockCascadeDeleteCacheEvictor);
     }
 
     @Test
@@ -151,6 +156,45 @@ class UserServiceImplTest {
         Mockito
                 .verify(mockUserRepository, Mockito.times(1))
                 .deleteById(id);
+        Mockito.verify(mockCascadeDeleteCacheEvictor).onUserDeleted();
+    }
+
+    @Test
+    @DisplayName("Проверка существования пользователя: повторная проверка берётся из кэша")
+    void checkUserCached() {
+        long id = USER_1.getId();
+        Mockito.when(mockUserRepository.existsById(id)).thenReturn(true);
+
+        userServiceImpl.checkUser(id);
+        userServiceImpl.checkUser(id);
+
+        Mockito.verify(mockUserRepository, Mockito.times(1)).existsById(id);
+        Mockito.verify(mockUserRepository, Mockito.never()).findById(any());
+    }
+
+    @Test
+    @DisplayName("Проверка несуществующего пользователя не кэшируется")
+    void checkUserNotFound() {
+        long id = 99L;
+        Mockito.when(mockUserRepository.existsById(id)).thenReturn(false);
+
+        Assertions.assertThrows(NotFoundException.class, () -> userServiceImpl.checkUser(id));
+        Assertions.assertThrows(NotFoundException.class, () -> userServiceImpl.checkUser(id));
+
+        Mockito.verify(mockUserRepository, Mockito.times(2)).existsById(id);
+    }
+
+    @Test
+    @DisplayName("Удаление пользователя сбрасывает кэш существования")
+    void deleteUserInvalidatesCache() {
+        long id = USER_1.getId();
+        Mockito.when(mockUserRepository.existsById(id)).thenReturn(true, false);
+        userServiceImpl.checkUser(id);
+
+        userServiceImpl.deleteUser(id);
+
+        Assertions.assertThrows(NotFoundException.class, () -> userServiceImpl.checkUser(id));
+        Mockito.verify(mockUserRepository, Mockito.times(2)).existsById(id);
     }
 
     private User copyUser(User user) {